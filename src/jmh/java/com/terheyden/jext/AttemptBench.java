@@ -0,0 +1,82 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing 1,000 ints, 1 in 10 of them bad, and counting the good ones.
+ * ignoreLoop is how it was done before attemptAll: ignore() each one, then go back over for the nulls.
+ * Most of the time goes into NumberFormatException's stack traces; attemptAllFailure throws a shared Failure instead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AttemptBench {
+
+    private static final Failure NOT_A_NUMBER = Failure.constant("NOT_A_NUMBER", "Not a number.");
+
+    private final List<String> texts = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < 1000; i++) {
+            texts.add(i % 10 == 0 ? "bad" + i : Integer.toString(i));
+        }
+    }
+
+    @Benchmark
+    public int ignoreLoop() {
+
+        List<Integer> nums = new ArrayList<>(texts.size());
+
+        for (String text : texts) {
+            nums.add(Except.ignore(() -> Integer.parseInt(text)));
+        }
+
+        int good = 0;
+
+        for (Integer num : nums) {
+            if (Val.notNull(num)) {
+                good++;
+            }
+        }
+
+        return good;
+    }
+
+    @Benchmark
+    public int attemptAll() {
+        return Except.attemptAll(Integer::parseInt, texts).okCount();
+    }
+
+    @Benchmark
+    public int attemptAllFailure() {
+        return Except.attemptAll(AttemptBench::parse, texts).okCount();
+    }
+
+    private static int parse(String text) {
+
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) {
+                throw NOT_A_NUMBER;
+            }
+        }
+
+        return Integer.parseInt(text);
+    }
+}
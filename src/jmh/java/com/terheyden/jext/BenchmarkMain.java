@@ -0,0 +1,33 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for target/benchmarks.jar.
+ * Same as the stock JMH main, but always attaches the GC profiler
+ * so every run reports allocation rate (gc.alloc.rate.norm = bytes per op) next to throughput.
+ *
+ * Accepts all the usual JMH command line options, e.g.:
+ *
+ *   java -jar target/benchmarks.jar ValStringBench -p length=256 -f 1
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Main class.
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        Options opts = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(opts).run();
+    }
+}
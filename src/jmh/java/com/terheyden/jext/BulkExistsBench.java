@@ -0,0 +1,91 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Checking [files] paths, spread over [dirs] directories, one Val.exists() at a time vs. Val.findMissing().
+ * One in ten of the paths doesn't exist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkExistsBench {
+
+    @Param({ "10000" })
+    public int files;
+
+    @Param({ "1", "100", "10000" })
+    public int dirs;
+
+    private Path root;
+    private List<Path> paths;
+
+    @Setup
+    public void setup() throws IOException {
+
+        root = Files.createTempDirectory("bulk-exists-bench");
+        paths = new ArrayList<>(files);
+
+        for (int i = 0; i < files; i++) {
+
+            Path dir = root.resolve("d" + (i % dirs));
+            Path file = dir.resolve("f" + i);
+            Files.createDirectories(dir);
+
+            if (i % 10 != 0) {
+                Files.createFile(file);
+            }
+
+            paths.add(file);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            walk.sorted((a, b) -> b.compareTo(a)).forEach(path -> Except.ignore(() -> Files.delete(path)));
+        }
+    }
+
+    @Benchmark
+    public BitSet sequential() {
+
+        BitSet missing = new BitSet(paths.size());
+
+        for (int i = 0; i < paths.size(); i++) {
+            if (!Val.exists(paths.get(i))) {
+                missing.set(i);
+            }
+        }
+
+        return missing;
+    }
+
+    @Benchmark
+    public BitSet findMissing() {
+        return Val.findMissing(paths);
+    }
+}
@@ -0,0 +1,61 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dumping a map of [size] entries (string keys, small list values) with {@link Val#toDebugStr(Object)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DebugRenderBench {
+
+    @Param({ "10", "10000" })
+    public int size;
+
+    private Map<String, List<Integer>> map;
+    private final StringBuilder reused = new StringBuilder(16 * 1024);
+
+    @Setup
+    public void setup() {
+
+        map = new HashMap<>();
+
+        for (int i = 0; i < size; i++) {
+            List<Integer> list = new ArrayList<>();
+            list.add(i);
+            list.add(i * 2);
+            map.put("key" + i, list);
+        }
+    }
+
+    @Benchmark
+    public String toDebugStr() {
+        return Val.toDebugStr(map);
+    }
+
+    @Benchmark
+    public StringBuilder toDebugStrReused() {
+        reused.setLength(0);
+        return Val.toDebugStr(map, reused);
+    }
+}
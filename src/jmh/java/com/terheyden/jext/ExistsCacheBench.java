@@ -0,0 +1,89 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking the same few hundred paths over and over, with and without an {@link ExistsCache}.
+ * Half the paths exist.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExistsCacheBench {
+
+    private static final int POOL_SIZE = 256;
+
+    @Param({ "false", "true" })
+    public boolean watched;
+
+    private Path dir;
+    private Path[] paths;
+    private ExistsCache cache;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+
+        dir = Files.createTempDirectory("exists-bench");
+        paths = new Path[POOL_SIZE];
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            paths[i] = dir.resolve("file" + i);
+            if (i % 2 == 0) {
+                Files.createFile(paths[i]);
+            }
+        }
+
+        cache = new ExistsCache(1024, 5, TimeUnit.SECONDS);
+
+        if (watched) {
+            cache.watch(dir);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        cache.close();
+
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+
+        Files.delete(dir);
+    }
+
+    private Path nextPath() {
+        next = (next + 1) & (POOL_SIZE - 1);
+        return paths[next];
+    }
+
+    @Benchmark
+    public boolean filesExists() {
+        return Files.exists(nextPath());
+    }
+
+    @Benchmark
+    public boolean cachedExists() {
+        return cache.exists(nextPath());
+    }
+}
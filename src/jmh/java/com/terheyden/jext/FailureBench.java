@@ -0,0 +1,71 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throwing and catching a parse failure, a few frames deep (so there's a stack to fill in).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailureBench {
+
+    private static final Failure NOT_A_NUMBER = Failure.constant("NOT_A_NUMBER", "Not a number.");
+
+    public String msg = "Not a number.";
+    public int depth = 10;
+
+    private Result<Integer> empty = Result.fail();
+
+    @FunctionalInterface
+    private interface Thrower {
+        void run() throws Exception;
+    }
+
+    private static String deep(int depth, Thrower thrower) {
+
+        if (depth > 0) {
+            return deep(depth - 1, thrower);
+        }
+
+        try {
+            thrower.run();
+            return null;
+        } catch (Exception e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String exception() {
+        return deep(depth, () -> { throw new Exception(msg); });
+    }
+
+    @Benchmark
+    public String failure() {
+        return deep(depth, () -> { throw Failure.of(msg); });
+    }
+
+    @Benchmark
+    public String failureConstant() {
+        return deep(depth, () -> { throw NOT_A_NUMBER; });
+    }
+
+    @Benchmark
+    public String getValueOrThrow() {
+        return deep(depth, () -> empty.getValueOrThrow("No value."));
+    }
+}
@@ -0,0 +1,145 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of {@link Grep} over a generated corpus of log files on local disk,
+ * against the one-file-at-a-time loop it replaces.
+ *
+ * The corpus is [files] files of about 256 KB each, written once per trial to a temp directory.
+ * About 1 line in 100 matches. Run with -p threads=1,2,4,... to see the scaling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GrepBench {
+
+    private static final int FILE_BYTES = 256 * 1024;
+    private static final String[] WORDS = { "info", "debug", "request", "served", "user", "cache", "miss", "ok" };
+
+    @Param({ "200" })
+    public int files;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    private Path corpus;
+    private List<Path> paths;
+    private CompiledRegex regex;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() throws IOException {
+
+        corpus = Files.createTempDirectory("grep-bench");
+        paths = new ArrayList<>();
+        Random rand = new Random(42);
+
+        for (int i = 0; i < files; i++) {
+
+            Path file = corpus.resolve("app" + i + ".log");
+            paths.add(file);
+
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+
+                int written = 0;
+
+                while (written < FILE_BYTES) {
+
+                    StringBuilder line = new StringBuilder("2024-01-01 12:00:00 ");
+
+                    if (rand.nextInt(100) == 0) {
+                        line.append("ERROR code=").append(rand.nextInt(1000)).append(" user=u").append(rand.nextInt(500));
+                    } else {
+                        for (int w = 0; w < 8; w++) {
+                            line.append(WORDS[rand.nextInt(WORDS.length)]).append(' ');
+                        }
+                    }
+
+                    writer.write(line.append('\n').toString());
+                    written += line.length();
+                }
+            }
+        }
+
+        regex = RegexBuilder.regex("ERROR code={num} user={user}")
+            .var("{num}", "\\d+")
+            .var("{user}", "\\w+", "user")
+            .compile();
+
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+
+        pool.shutdown();
+
+        try (Stream<Path> walk = Files.walk(corpus)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long grep() {
+
+        try (Stream<GrepMatch> matches = new Grep(regex).executor(pool).search(corpus)) {
+            return matches.count();
+        }
+    }
+
+    /**
+     * The old way: one file at a time, on the calling thread.
+     */
+    @Benchmark
+    public long sequentialLoop() throws IOException {
+
+        long count = 0;
+        Matcher mat = regex.pattern().matcher("");
+
+        for (Path path : paths) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+
+                String line;
+
+                while ((line = reader.readLine()) != null) {
+                    mat.reset(line);
+                    while (mat.find()) {
+                        count++;
+                    }
+                }
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,68 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Returning a summed-up metric as a Result<Long> vs. a LongResult.
+ * Run with -prof gc: the boxed version allocates the Long as well as the Result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveResultBench {
+
+    public long[] samples = { 1200L, 3400L, 5600L, 7800L };
+
+    private long sum() {
+
+        long sum = 0;
+
+        for (long sample : samples) {
+            sum += sample;
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public Result<Long> boxed() {
+        return Result.ok(sum());
+    }
+
+    @Benchmark
+    public LongResult primitive() {
+        return LongResult.ok(sum());
+    }
+
+    /**
+     * Returned and used right away, so escape analysis may get rid of both.
+     */
+    @Benchmark
+    public long boxedMapped() {
+        Result<Long> result = Result.ok(sum());
+        return result.getValueOrDefault(0L) * 2;
+    }
+
+    @Benchmark
+    public long primitiveMapped() {
+        return LongResult.ok(sum()).map(val -> val * 2).orElse(0);
+    }
+
+    @Benchmark
+    public LongResult primitiveFail() {
+        return LongResult.fail();
+    }
+}
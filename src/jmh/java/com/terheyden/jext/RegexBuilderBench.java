@@ -0,0 +1,103 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building a large {@link RegexBuilder} regex from a dictionary, through layers of transitive vars.
+ *
+ * The dictionary is split into [vars] word-list vars, {dict0} .. {dictN}.
+ * Each {phraseN} var references two of those, and the regex references every phrase,
+ * so the final regex holds every word twice.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexBuilderBench {
+
+    private static final int WORDS_PER_VAR = 50;
+
+    @Param({ "8", "64" })
+    public int vars;
+
+    private String regex;
+    private String[] dictKeys;
+    private String[] dictVals;
+    private String[] phraseKeys;
+    private String[] phraseVals;
+
+    @Setup
+    public void setup() {
+
+        Random rand = new Random(42);
+
+        dictKeys = new String[vars];
+        dictVals = new String[vars];
+        phraseKeys = new String[vars];
+        phraseVals = new String[vars];
+
+        StringJoiner top = new StringJoiner("|");
+
+        for (int i = 0; i < vars; i++) {
+
+            StringJoiner words = new StringJoiner("|", "(?:", ")");
+            for (int w = 0; w < WORDS_PER_VAR; w++) {
+                words.add(randomWord(rand));
+            }
+
+            dictKeys[i] = "{dict" + i + "}";
+            dictVals[i] = words.toString();
+            phraseKeys[i] = "{phrase" + i + "}";
+            phraseVals[i] = dictKeys[i] + " " + dictKeys[(i + 1) % vars];
+
+            top.add(phraseKeys[i]);
+        }
+
+        regex = top.toString();
+    }
+
+    private static String randomWord(Random rand) {
+
+        StringBuilder bui = new StringBuilder();
+        int len = 4 + rand.nextInt(6);
+
+        for (int i = 0; i < len; i++) {
+            bui.append((char) ('a' + rand.nextInt(26)));
+        }
+
+        return bui.toString();
+    }
+
+    @Benchmark
+    public String buildString() {
+
+        RegexBuilder bui = RegexBuilder.regex(regex);
+
+        // Dictionaries first, since phrases reference them.
+        for (int i = 0; i < vars; i++) {
+            bui.var(dictKeys[i], dictVals[i]);
+        }
+
+        for (int i = 0; i < vars; i++) {
+            bui.var(phraseKeys[i], phraseVals[i]);
+        }
+
+        return bui.buildString();
+    }
+}
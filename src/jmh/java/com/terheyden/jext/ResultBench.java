@@ -0,0 +1,49 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Returning the everyday Results, from a validation-style method.
+ * Run with -prof gc: the payload-less ones should be ~0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultBench {
+
+    public String name = "Mika";
+    public String missing = null;
+
+    @Benchmark
+    public Result<String> ok() {
+        return Val.isEmpty(name) ? Result.fail("No name.") : Result.ok();
+    }
+
+    @Benchmark
+    public Result<String> okIfNotNull() {
+        return Result.okIfNotNull(missing);
+    }
+
+    @Benchmark
+    public Result<Boolean> okBoolean() {
+        return Result.ok(Val.isEmpty(name));
+    }
+
+    @Benchmark
+    public Result<String> okValue() {
+        return Result.ok(name);
+    }
+}
@@ -0,0 +1,52 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A typical error message, with String.format(), Str.fmt(), and a precompiled {@link FormatTemplate}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrFormatBench {
+
+    private static final String PATTERN = "Arg %d of %d for %s is invalid: %.2f (0x%x)";
+    private static final FormatTemplate TEMPLATE = Str.template(PATTERN);
+
+    public int index = 3;
+    public String name = "userName";
+    public double score = 12.345;
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(PATTERN, index, 5, name, score, index * 31);
+    }
+
+    @Benchmark
+    public String strFmt() {
+        return Str.fmt(PATTERN, index, 5, name, score, index * 31);
+    }
+
+    @Benchmark
+    public String template() {
+        return TEMPLATE.format(index, 5, name, score, index * 31);
+    }
+
+    @Benchmark
+    public String parseAndFormat() {
+        return Str.template(PATTERN).format(index, 5, name, score, index * 31);
+    }
+}
@@ -0,0 +1,59 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The passing case of the throwIf*() guards, with a formatted message that's never needed.
+ * Run with -prof gc and compare gc.alloc.rate.norm: fixedArity, supplier, and noMessage should be ~0 B/op.
+ * varargs builds the Object[] on every call, even though it passes, unless escape analysis gets rid of it.
+ * boxedArg goes through a fixed-arg overload too, but still boxes [count] (big longs aren't cached).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValGuardBench {
+
+    public String name = "Mika";
+    public String group = "admins";
+    public String host = "db1";
+    public long count = 123456789L;
+
+    @Benchmark
+    public String varargs() {
+        // What a call with 4+ args compiles to.
+        return Val.throwIfEmpty(name, "Empty name in %s on %s", new Object[] { group, host });
+    }
+
+    @Benchmark
+    public String fixedArity() {
+        return Val.throwIfEmpty(name, "Empty name in %s on %s", group, host);
+    }
+
+    @Benchmark
+    public String boxedArg() {
+        return Val.throwIfEmpty(name, "Empty name for user %d", count);
+    }
+
+    @Benchmark
+    public String supplier() {
+        return Val.throwIfEmpty(name, () -> Str.fmt("Empty name for user %d", count));
+    }
+
+    @Benchmark
+    public String noMessage() {
+        return Val.throwIfNull(name);
+    }
+}
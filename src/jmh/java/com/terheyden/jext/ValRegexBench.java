@@ -0,0 +1,91 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@link Val#containsAnyRegex(String, Set)} / {@link Val#containsAllRegex(String, Set)} over bound words,
+ * one scan per pattern (a plain HashSet) vs. one combined scan (a {@link RegexSet}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValRegexBench {
+
+    @Param({ "4", "32", "256" })
+    public int words;
+
+    @Param({ "1024" })
+    public int length;
+
+    private Set<Pattern> patternSet;
+    private Set<Pattern> regexSet;
+    private String missText;
+    private String allText;
+
+    @Setup
+    public void setup() {
+
+        Random rand = new Random(42);
+        String[] wordArr = new String[words];
+
+        for (int i = 0; i < words; i++) {
+            wordArr[i] = "w" + Integer.toString(rand.nextInt(1 << 30), 36);
+        }
+
+        regexSet = Val.boundWords(wordArr);
+        patternSet = new HashSet<>(regexSet);
+
+        // Words of filler that never match.
+        StringBuilder bui = new StringBuilder();
+        while (bui.length() < length) {
+            bui.append("x").append(Integer.toString(rand.nextInt(1 << 30), 36)).append(' ');
+        }
+
+        missText = bui.toString();
+
+        for (String word : wordArr) {
+            bui.append(word).append(' ');
+        }
+
+        allText = bui.toString();
+    }
+
+    @Benchmark
+    public boolean containsAnyPerPattern() {
+        return Val.containsAnyRegex(missText, patternSet);
+    }
+
+    @Benchmark
+    public boolean containsAnyRegexSet() {
+        return Val.containsAnyRegex(missText, regexSet);
+    }
+
+    @Benchmark
+    public boolean containsAllPerPattern() {
+        return Val.containsAllRegex(allText, patternSet);
+    }
+
+    @Benchmark
+    public boolean containsAllRegexSet() {
+        return Val.containsAllRegex(allText, regexSet);
+    }
+}
@@ -0,0 +1,256 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link Val} contains / equals / endsWith string predicates.
+ *
+ * Each invocation tests the next text from a pool of pre-generated inputs,
+ * where [hitPercent] of the pool actually matches. Hits place the needle at the very end
+ * of the text, which is the worst case for contains() and the only case for endsWith().
+ * The *IgnoreCase benchmarks run against upper-cased copies of the same pool.
+ *
+ * The single-needle benchmarks (contains, endsWith) get their own pool whose hits always end with
+ * the one needle they search for, so [hitPercent] is their real hit rate whatever [needles] is.
+ * The containsAll() texts have to fit every needle, so they're stretched to needles * 8 chars
+ * when that's longer than [length] (e.g. 512 chars for length=16, needles=64).
+ *
+ * Narrow the matrix down with -p, e.g.: -p length=256 -p needles=8 -p hitPercent=50
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValStringBench {
+
+    private static final String ASCII_CHARS = "abcdefghijklmnopqrstuvwxyz0123456789-_.";
+
+    // Only chars that survive an upper / lower case round trip, so hits stay hits when ignoring case.
+    private static final String UNICODE_CHARS = "abcdefghijklmnopqrstuvwxyzäçéèñöüαβγδεζηθλμπσωабвгдежзикл";
+
+    private static final int POOL_SIZE = 64;
+    private static final int NEEDLE_LEN = 8;
+
+    @Param({ "16", "256", "4096" })
+    public int length;
+
+    @Param({ "1", "8", "64" })
+    public int needles;
+
+    @Param({ "0", "50", "100" })
+    public int hitPercent;
+
+    @Param({ "ascii", "unicode" })
+    public String charset;
+
+    private String[] texts;
+    private String[] upperTexts;
+    private String[] oneTexts;
+    private String[] upperOneTexts;
+    private String[] allTexts;
+    private String[] upperAllTexts;
+    private String[] words;
+    private String[] upperWords;
+
+    private String[] needleArr;
+    private List<String> needleList;
+    private NeedleSet needleSet;
+    private NeedleSet foldedNeedleSet;
+    private String needle;
+
+    private int next;
+
+    @Setup
+    public void setup() {
+
+        Random rand = new Random(42);
+        String chars = "ascii".equals(charset) ? ASCII_CHARS : UNICODE_CHARS;
+
+        needleArr = new String[needles];
+        for (int i = 0; i < needles; i++) {
+            needleArr[i] = randomStr(rand, chars, NEEDLE_LEN);
+        }
+
+        needleList = Arrays.asList(needleArr);
+        needleSet = Val.compileNeedles(needleList);
+        foldedNeedleSet = Val.compileNeedlesIgnoreCase(needleList);
+        needle = needleArr[0];
+
+        texts = new String[POOL_SIZE];
+        upperTexts = new String[POOL_SIZE];
+        oneTexts = new String[POOL_SIZE];
+        upperOneTexts = new String[POOL_SIZE];
+        allTexts = new String[POOL_SIZE];
+        upperAllTexts = new String[POOL_SIZE];
+        words = new String[POOL_SIZE];
+        upperWords = new String[POOL_SIZE];
+
+        List<Boolean> hits = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            hits.add(i * 100 < hitPercent * POOL_SIZE);
+        }
+
+        Collections.shuffle(hits, rand);
+
+        // Long enough for every needle, for the containsAll() family.
+        int allLength = Math.max(length, needles * NEEDLE_LEN);
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+
+            boolean hit = hits.get(i);
+
+            // Any one needle hit, always at the very end.
+            String hitNeedle = needleArr[rand.nextInt(needles)];
+            String filler = randomStr(rand, chars, Math.max(0, length - NEEDLE_LEN));
+            texts[i] = hit ? filler + hitNeedle : randomStr(rand, chars, length);
+
+            // Same, but always the first needle, for the single-needle benchmarks.
+            oneTexts[i] = hit ? filler + needle : texts[i];
+
+            // Every needle hit, for the containsAll() family.
+            StringBuilder all = new StringBuilder(randomStr(rand, chars, allLength - needles * NEEDLE_LEN));
+            if (hit) {
+                for (String n : needleArr) {
+                    all.append(n);
+                }
+            } else {
+                all.append(randomStr(rand, chars, needles * NEEDLE_LEN));
+            }
+
+            allTexts[i] = all.toString();
+
+            // Whole-string hits for the equals() family.
+            words[i] = hit ? hitNeedle : randomStr(rand, chars, NEEDLE_LEN);
+
+            upperTexts[i] = texts[i].toUpperCase(Locale.ROOT);
+            upperOneTexts[i] = oneTexts[i].toUpperCase(Locale.ROOT);
+            upperAllTexts[i] = allTexts[i].toUpperCase(Locale.ROOT);
+            upperWords[i] = words[i].toUpperCase(Locale.ROOT);
+        }
+    }
+
+    private static String randomStr(Random rand, String chars, int len) {
+
+        StringBuilder bui = new StringBuilder(len);
+
+        for (int i = 0; i < len; i++) {
+            bui.append(chars.charAt(rand.nextInt(chars.length())));
+        }
+
+        return bui.toString();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (POOL_SIZE - 1);
+        return next;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONTAINS:
+
+    @Benchmark
+    public boolean contains() {
+        return Val.contains(oneTexts[nextIndex()], needle);
+    }
+
+    @Benchmark
+    public boolean containsIgnoreCase() {
+        return Val.containsIgnoreCase(upperOneTexts[nextIndex()], needle);
+    }
+
+    @Benchmark
+    public boolean containsAny() {
+        return Val.containsAny(texts[nextIndex()], needleList);
+    }
+
+    @Benchmark
+    public boolean containsAnyCompiled() {
+        return Val.containsAny(texts[nextIndex()], needleSet);
+    }
+
+    @Benchmark
+    public boolean containsAnyIgnoreCase() {
+        return Val.containsAnyIgnoreCase(upperTexts[nextIndex()], needleArr);
+    }
+
+    @Benchmark
+    public boolean containsAnyIgnoreCaseCompiled() {
+        return Val.containsAnyIgnoreCase(upperTexts[nextIndex()], foldedNeedleSet);
+    }
+
+    @Benchmark
+    public boolean containsAll() {
+        return Val.containsAll(allTexts[nextIndex()], needleArr);
+    }
+
+    @Benchmark
+    public boolean containsAllCompiled() {
+        return Val.containsAll(allTexts[nextIndex()], needleSet);
+    }
+
+    @Benchmark
+    public boolean containsAllIgnoreCase() {
+        return Val.containsAllIgnoreCase(upperAllTexts[nextIndex()], needleArr);
+    }
+
+    @Benchmark
+    public boolean containsAllIgnoreCaseCompiled() {
+        return Val.containsAllIgnoreCase(upperAllTexts[nextIndex()], foldedNeedleSet);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // ENDS WITH:
+
+    @Benchmark
+    public boolean endsWith() {
+        return Val.endsWith(oneTexts[nextIndex()], needle);
+    }
+
+    @Benchmark
+    public boolean endsWithIgnoreCase() {
+        return Val.endsWithIgnoreCase(upperOneTexts[nextIndex()], needle);
+    }
+
+    @Benchmark
+    public boolean endsWithAny() {
+        return Val.endsWithAny(texts[nextIndex()], needleList);
+    }
+
+    @Benchmark
+    public boolean endsWithAnyIgnoreCase() {
+        return Val.endsWithAnyIgnoreCase(upperTexts[nextIndex()], needleArr);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // EQUALS:
+
+    @Benchmark
+    public boolean equalsAny() {
+        return Val.equalsAny(words[nextIndex()], needleArr);
+    }
+
+    @Benchmark
+    public boolean equalsAnyIgnoreCase() {
+        return Val.equalsAnyIgnoreCase(upperWords[nextIndex()], needleArr);
+    }
+}
@@ -0,0 +1,115 @@
+package com.terheyden.jext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link Val#isInvalid(Object)} on a call site that sees [types] different arg types:
+ * 1 is monomorphic, 2 bimorphic, 8 megamorphic.
+ *
+ * instanceofChain is the old implementation, kept here as the baseline.
+ * Files and Paths are left out, since their checks hit the file system and would drown out the dispatch.
+ *
+ * E.g.: -p types=8
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValValidateBench {
+
+    private static final int POOL_SIZE = 64;
+
+    @Param({ "1", "2", "8" })
+    public int types;
+
+    private Object[] args;
+    private int next;
+
+    @Setup
+    public void setup() {
+
+        List<Object> samples = new ArrayList<>();
+        samples.add("hello");
+        samples.add(new int[] { 1, 2, 3 });
+        samples.add(new ArrayList<>(Collections.singleton(1)));
+        samples.add(new HashMap<>(Collections.singletonMap("k", "v")));
+        samples.add(new StringBuilder("sb"));
+        samples.add(new byte[] { 1 });
+        samples.add(new ArrayDeque<>(Collections.singleton(1)));
+        samples.add(new TreeMap<>(Collections.singletonMap("k", "v")));
+
+        Random rand = new Random(42);
+        args = new Object[POOL_SIZE];
+
+        for (int i = 0; i < POOL_SIZE; i++) {
+            args[i] = samples.get(rand.nextInt(types));
+        }
+
+        // Let the old chain see all the types too, so neither side gets a head start.
+        for (Object sample : samples) {
+            oldIsInvalid(sample);
+            Val.isInvalid(sample);
+        }
+    }
+
+    private Object nextArg() {
+        next = (next + 1) & (POOL_SIZE - 1);
+        return args[next];
+    }
+
+    @Benchmark
+    public boolean isInvalid() {
+        return Val.isInvalid(nextArg());
+    }
+
+    @Benchmark
+    public boolean instanceofChain() {
+        return oldIsInvalid(nextArg());
+    }
+
+    /**
+     * Val.isInvalid() before the ClassValue dispatch, minus the Path and File checks.
+     */
+    private static boolean oldIsInvalid(Object arg) {
+
+        if (arg == null) {
+            return true;
+        } else if (arg instanceof Collection<?>) {
+            return ((Collection<?>) arg).isEmpty();
+        } else if (arg instanceof Iterable) {
+            return !((Iterable<?>) arg).iterator().hasNext();
+        } else if (arg.getClass().isArray()) {
+            return Array.getLength(arg) == 0;
+        } else if (arg instanceof Map<?, ?>) {
+            return ((Map<?, ?>) arg).isEmpty();
+        } else if (arg instanceof CharSequence) {
+            return Val.isEmpty((CharSequence) arg);
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,300 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * A {@link Result} that isn't ready yet. Chain up what to do with it, and nothing blocks:
+ *
+ *   AsyncResult.supply(() -> loadUser(id), pool)
+ *       .map(User::email)
+ *       .flatMap(email -> validateAsync(email))
+ *       .recover(fail -> "unknown@example.com")
+ *       .toFuture();
+ *
+ * Every stage runs on the executor given when it was made. Like Result, a fail skips the stages
+ * that need a value and passes straight through; an exception thrown in a stage becomes a fail, with it as the cause.
+ * The underlying future never completes exceptionally.
+ */
+@ParametersAreNonnullByDefault
+public final class AsyncResult<T> {
+
+    private final CompletableFuture<Result<T>> future;
+    private final Executor executor;
+
+    private AsyncResult(CompletableFuture<Result<T>> future, Executor executor) {
+        this.future = future;
+        this.executor = executor;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * Run [func] on [executor], and capture what it returns or throws.
+     */
+    public static <T> AsyncResult<T> supply(Except.ThrowableSupplier<T> func, Executor executor) {
+        return new AsyncResult<>(CompletableFuture.supplyAsync(() -> Except.attempt(func), executor), executor);
+    }
+
+    /**
+     * An already-finished result. Later stages run on [executor].
+     */
+    public static <T> AsyncResult<T> completed(Result<T> result, Executor executor) {
+        return new AsyncResult<>(CompletableFuture.completedFuture(result), executor);
+    }
+
+    /**
+     * Wrap a future Result, e.g. from {@link Except#retry(Except.ThrowableSupplier, RetryPolicy)}.
+     * If it completes exceptionally, that becomes a fail.
+     */
+    public static <T> AsyncResult<T> of(CompletableFuture<Result<T>> future, Executor executor) {
+        return new AsyncResult<>(future.handle(AsyncResult::orFail), executor);
+    }
+
+    /**
+     * Wrap a plain future: its value becomes an Ok, and an exception a fail.
+     */
+    public static <T> AsyncResult<T> fromFuture(CompletableFuture<T> future, Executor executor) {
+        return new AsyncResult<>(future.handle((val, e) -> orFail(Result.ok(val), e)), executor);
+    }
+
+    /**
+     * The result, or a fail with the exception (unwrapped) if there was one.
+     */
+    private static <T> Result<T> orFail(@Nullable Result<T> result, @Nullable Throwable e) {
+
+        if (e == null) {
+            return result == null ? Result.fail() : result;
+        }
+
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return Result.fail(cause instanceof Exception ? (Exception) cause : Failure.of(cause.toString(), cause));
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STAGES:
+
+    /**
+     * If Ok with a value, apply [mapper] to it. See {@link Result#map(Function)}.
+     */
+    public <R> AsyncResult<R> map(Except.ThrowableFunction<? super T, ? extends R> mapper) {
+        return next(future.thenApplyAsync(result -> mapResult(result, mapper), executor));
+    }
+
+    /**
+     * If Ok with a value, continue with the AsyncResult that [mapper] makes of it.
+     */
+    public <R> AsyncResult<R> flatMap(Except.ThrowableFunction<? super T, AsyncResult<R>> mapper) {
+
+        return next(future.thenComposeAsync(result -> {
+
+            if (!result.isOk() || !result.hasValue()) {
+                return CompletableFuture.completedFuture(result.<R>withoutValue());
+            }
+
+            try {
+                return mapper.apply(result.getValue()).future;
+            } catch (Exception e) {
+                return CompletableFuture.completedFuture(Result.<R>fail(e));
+            }
+
+        }, executor));
+    }
+
+    /**
+     * If this failed, turn it into an Ok with whatever [recovery] makes of the fail.
+     */
+    public AsyncResult<T> recover(Except.ThrowableFunction<? super Result<T>, ? extends T> recovery) {
+
+        return next(future.thenApplyAsync(result -> {
+
+            if (result.isOk()) {
+                return result;
+            }
+
+            return Except.attempt(recovery, result);
+
+        }, executor));
+    }
+
+    /**
+     * When both this and [other] are Ok with values, combine them with [combiner].
+     * Otherwise, the first one that isn't (this, then [other]).
+     */
+    public <U, R> AsyncResult<R> thenCombine(AsyncResult<U> other,
+        Except.ThrowableBiFunction<? super T, ? super U, ? extends R> combiner) {
+
+        return next(future.thenCombineAsync(other.future, (mine, theirs) -> {
+
+            if (!mine.isOk() || !mine.hasValue()) {
+                return mine.<R>withoutValue();
+            } else if (!theirs.isOk() || !theirs.hasValue()) {
+                return theirs.<R>withoutValue();
+            }
+
+            try {
+                return Result.<R>ok(combiner.apply(mine.getValue(), theirs.getValue()));
+            } catch (Exception e) {
+                return Result.<R>fail(e);
+            }
+
+        }, executor));
+    }
+
+    private <R> AsyncResult<R> next(CompletableFuture<Result<R>> nextFuture) {
+        // A stage that throws anyway (e.g. an Error, or a rejected task) still ends up as a fail.
+        return new AsyncResult<>(nextFuture.handle(AsyncResult::orFail), executor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, R> Result<R> mapResult(
+        Result<T> result, Except.ThrowableFunction<? super T, ? extends R> mapper) {
+
+        if (!result.isOk() || !result.hasValue()) {
+            return result.withoutValue();
+        }
+
+        try {
+            return result.withValue((R) mapper.apply(result.getValue()));
+        } catch (Exception e) {
+            return Result.fail(e);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // MANY:
+
+    /**
+     * Ok with all the values, in order, once they're all Ok; or the first fail (in order), once they're all done.
+     */
+    public static <T> AsyncResult<List<T>> allOf(Collection<AsyncResult<T>> results, Executor executor) {
+
+        List<CompletableFuture<Result<T>>> futures = new ArrayList<>(results.size());
+
+        for (AsyncResult<T> result : results) {
+            futures.add(result.future);
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+
+        return new AsyncResult<>(all.thenApplyAsync(done -> {
+
+            List<T> values = new ArrayList<>(futures.size());
+
+            for (CompletableFuture<Result<T>> future : futures) {
+
+                // Already done, so no blocking.
+                Result<T> result = future.join();
+
+                if (!result.isOk()) {
+                    return result.<List<T>>withoutValue();
+                }
+
+                values.add(result.getValue());
+            }
+
+            return Result.ok(values);
+
+        }, executor).handle(AsyncResult::orFail), executor);
+    }
+
+    /**
+     * The first one to finish Ok. If none do, the first fail (in order), once they're all done.
+     */
+    public static <T> AsyncResult<T> anyOf(Collection<AsyncResult<T>> results, Executor executor) {
+
+        if (results.isEmpty()) {
+            return completed(Result.fail("No results to pick from."), executor);
+        }
+
+        CompletableFuture<Result<T>> first = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(results.size());
+        AtomicReferenceArray<Result<T>> fails = new AtomicReferenceArray<>(results.size());
+        int index = 0;
+
+        for (AsyncResult<T> result : results) {
+
+            int resultIndex = index++;
+
+            // handle(), so a cancelled future counts as a fail instead of never counting at all.
+            // It's quick, so it runs right where the future completes; there's no task for the executor to reject.
+            result.future.handle((done, e) -> {
+
+                Result<T> each = orFail(done, e);
+
+                if (each.isOk()) {
+                    first.complete(each);
+                } else {
+                    fails.set(resultIndex, each);
+
+                    // All failed; report the first.
+                    if (remaining.decrementAndGet() == 0) {
+                        first.complete(fails.get(0));
+                    }
+                }
+
+                return null;
+            });
+        }
+
+        return new AsyncResult<>(first, executor);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // FINISH:
+
+    /**
+     * The underlying future. It never completes exceptionally.
+     */
+    public CompletableFuture<Result<T>> toFuture() {
+        return future;
+    }
+
+    /**
+     * The value, if it's Ok; or completes exceptionally with the fail's cause (or a {@link Failure} with its message).
+     */
+    public CompletableFuture<T> toValueFuture() {
+
+        return future.thenApply(result -> {
+
+            if (result.isOk()) {
+                return result.getValue();
+            }
+
+            Exception cause = result.getCause();
+            throw new CompletionException(cause != null ? cause : Failure.of(result.getMsgOrDefault("Failed.")));
+        });
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Wait for the result. Blocks, so keep it for the edges: main(), tests, etc.
+     */
+    public Result<T> join() {
+        return future.join();
+    }
+
+    @Override
+    public String toString() {
+        if (!future.isDone()) {
+            return "AsyncResult[pending]";
+        }
+
+        Result<T> result = future.join();
+        return "AsyncResult[" + (result.isOk() ? "Ok" : "Fail") + (result.hasMsg() ? ": " + result.getMsg() : "") + "]";
+    }
+}
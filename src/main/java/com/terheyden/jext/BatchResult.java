@@ -0,0 +1,228 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of running one function over a batch of inputs, from
+ * {@link Except#attemptAll(Except.ThrowableFunction, List)}, or of a batch of tasks, from
+ * {@link Results#runAll(Collection)}. Index i is the result for input i.
+ * Each one is Ok, failed, or (if the batch was cancelled early) skipped.
+ *
+ * Successes are kept as a bitmap and a plain array of values; only the failures carry an exception.
+ * So a big batch that mostly works costs about the same as a plain loop.
+ * Immutable.
+ */
+@ParametersAreNonnullByDefault
+public final class BatchResult<R> {
+
+    private static final int[] NO_INDEXES = new int[0];
+    private static final Exception[] NO_CAUSES = new Exception[0];
+
+    private final Object[] values;
+    private final BitSet ok;
+    private final int okCount;
+
+    // In index order, so we can binary search.
+    private final int[] failedIndexes;
+    private final Exception[] causes;
+
+    private BatchResult(Object[] values, BitSet ok, int[] failedIndexes, Exception[] causes) {
+        this.values = values;
+        this.ok = ok;
+        this.okCount = ok.cardinality();
+        this.failedIndexes = failedIndexes;
+        this.causes = causes;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // BUILD:
+
+    /**
+     * Collects results in index order. Not thread-safe.
+     */
+    static final class Builder<R> {
+
+        private final Object[] values;
+        private final BitSet ok;
+
+        private int[] failedIndexes = NO_INDEXES;
+        private Exception[] causes = NO_CAUSES;
+        private int failCount;
+
+        Builder(int size) {
+            values = new Object[size];
+            ok = new BitSet(size);
+        }
+
+        void ok(int index, @Nullable R value) {
+            values[index] = value;
+            ok.set(index);
+        }
+
+        void fail(int index, Exception cause) {
+
+            if (failCount == failedIndexes.length) {
+                int newLen = Math.max(4, failCount * 2);
+                failedIndexes = Arrays.copyOf(failedIndexes, newLen);
+                causes = Arrays.copyOf(causes, newLen);
+            }
+
+            failedIndexes[failCount] = index;
+            causes[failCount] = cause;
+            failCount++;
+        }
+
+        BatchResult<R> build() {
+            if (failCount == 0) {
+                return new BatchResult<>(values, ok, NO_INDEXES, NO_CAUSES);
+            }
+
+            return new BatchResult<>(values, ok,
+                Arrays.copyOf(failedIndexes, failCount), Arrays.copyOf(causes, failCount));
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // READ:
+
+    public int size() {
+        return values.length;
+    }
+
+    public int okCount() {
+        return okCount;
+    }
+
+    public int failCount() {
+        return failedIndexes.length;
+    }
+
+    /**
+     * Inputs that were never run, because the batch was cancelled.
+     */
+    public int skippedCount() {
+        return values.length - okCount - failedIndexes.length;
+    }
+
+    public boolean isAllOk() {
+        return okCount == values.length;
+    }
+
+    public boolean isOk(int index) {
+        checkIndex(index);
+        return ok.get(index);
+    }
+
+    /**
+     * Which inputs worked, as a bitmap. A copy, so feel free to change it.
+     */
+    public BitSet successes() {
+        return (BitSet) ok.clone();
+    }
+
+    /**
+     * The value for input [index], or null if it failed.
+     */
+    @SuppressWarnings("unchecked")
+    public @Nullable R getValue(int index) {
+        checkIndex(index);
+        return (R) values[index];
+    }
+
+    /**
+     * Why input [index] failed, or null if it didn't.
+     */
+    public @Nullable Exception getCause(int index) {
+        checkIndex(index);
+        int pos = Arrays.binarySearch(failedIndexes, index);
+        return pos >= 0 ? causes[pos] : null;
+    }
+
+    /**
+     * The result for input [index], as a regular {@link Result}. Skipped inputs are a fail with no cause.
+     */
+    public Result<R> get(int index) {
+
+        if (isOk(index)) {
+            return Result.ok(getValue(index));
+        }
+
+        Exception cause = getCause(index);
+        return cause == null ? Result.fail("Skipped.") : Result.fail(cause);
+    }
+
+    /**
+     * All the values, in input order, with nulls where the input failed (or was skipped).
+     */
+    @SuppressWarnings("unchecked")
+    public List<R> values() {
+        return Collections.unmodifiableList(Arrays.asList((R[]) values));
+    }
+
+    /**
+     * Just the values of the inputs that worked, in input order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<R> okValues() {
+
+        if (isAllOk()) {
+            return values();
+        }
+
+        List<R> list = new ArrayList<>(okCount());
+
+        for (int i = ok.nextSetBit(0); i >= 0; i = ok.nextSetBit(i + 1)) {
+            list.add((R) values[i]);
+        }
+
+        return list;
+    }
+
+    /**
+     * The indexes of the inputs that failed, in order. A copy.
+     */
+    public int[] failedIndexes() {
+        return failedIndexes.clone();
+    }
+
+    /**
+     * Why each failed input failed, in the same order as {@link #failedIndexes()}.
+     */
+    public List<Exception> causes() {
+        return Collections.unmodifiableList(Arrays.asList(causes));
+    }
+
+    /**
+     * The message of each of {@link #causes()}, in the same order.
+     */
+    public List<String> failureMessages() {
+
+        List<String> msgs = new ArrayList<>(causes.length);
+
+        for (Exception cause : causes) {
+            msgs.add(cause.getMessage());
+        }
+
+        return msgs;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= values.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + values.length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[size=" + values.length + ", failed=" + failedIndexes.length
+            + (skippedCount() > 0 ? ", skipped=" + skippedCount() : "") + "]";
+    }
+}
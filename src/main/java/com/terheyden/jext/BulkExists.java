@@ -0,0 +1,346 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Checks which of many paths exist, for {@link Val#findMissing(Collection, Executor)} and friends.
+ *
+ * The paths are grouped by parent directory. When a lot of them share a directory,
+ * one listing of the directory can replace all their stat() calls. The groups are
+ * spread across the executor, and each task marks its misses in its own BitSet.
+ */
+@ParametersAreNonnullByDefault
+final class BulkExists {
+
+    // A directory needs at least this many of our paths to be worth listing.
+    private static final int MIN_LISTING_GROUP = 16;
+
+    // Stop listing (and stat instead) once a directory has this many entries per path we're looking for.
+    private static final int MAX_ENTRIES_PER_PATH = 8;
+
+    // Paths per task, when we're stat'ing.
+    private static final int STAT_BATCH = 256;
+
+    private BulkExists() {
+        // Private since this class shouldn't be instantiated.
+    }
+
+    /**
+     * Return the indexes (in iteration order) of the paths that are null or don't exist.
+     */
+    static BitSet findMissing(Collection<Path> paths, Executor executor) {
+
+        // The tasks jump around by index, so a LinkedList would make this quadratic.
+        List<Path> list = paths instanceof List && paths instanceof RandomAccess
+            ? (List<Path>) paths
+            : new ArrayList<>(paths);
+        List<Task> tasks = plan(list);
+
+        if (tasks.size() == 1) {
+            return tasks.get(0).run(list);
+        }
+
+        // Not CompletableFuture: on a 1-CPU box it swaps the common pool for a new thread per task.
+        List<FutureTask<BitSet>> futures = new ArrayList<>(tasks.size());
+
+        for (Task task : tasks) {
+            FutureTask<BitSet> future = new FutureTask<>(() -> task.run(list));
+            futures.add(future);
+            executor.execute(future);
+        }
+
+        BitSet missing = new BitSet(list.size());
+
+        for (FutureTask<BitSet> future : futures) {
+
+            // Help out: run it ourselves if the executor hasn't got to it yet. (A no-op if it has.)
+            future.run();
+            missing.or(Except.wrap(() -> join(future)));
+        }
+
+        return missing;
+    }
+
+    /**
+     * Wait for the task, and rethrow whatever it threw.
+     */
+    private static BitSet join(FutureTask<BitSet> future) throws Exception {
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    /**
+     * Split the paths into tasks: a listing task for each crowded directory,
+     * and batches of stat()s for the rest.
+     */
+    private static List<Task> plan(List<Path> paths) {
+
+        List<Task> tasks = new ArrayList<>();
+        IntList stats = new IntList();
+
+        // With a cache, a stat() is usually just a lookup, so don't bother listing.
+        if (Val.existsCache() != null) {
+
+            for (int i = 0; i < paths.size(); i++) {
+                stats.add(i);
+            }
+
+            addStatTasks(tasks, stats);
+            return tasks;
+        }
+
+        Map<Path, IntList> byDir = new LinkedHashMap<>();
+
+        for (int i = 0; i < paths.size(); i++) {
+
+            Path path = paths.get(i);
+            Path dir = path == null ? null : path.getParent();
+
+            if (dir == null) {
+                stats.add(i);
+            } else {
+                byDir.computeIfAbsent(dir, key -> new IntList()).add(i);
+            }
+        }
+
+        for (Map.Entry<Path, IntList> group : byDir.entrySet()) {
+
+            if (group.getValue().size < MIN_LISTING_GROUP) {
+                stats.addAll(group.getValue());
+            } else {
+                tasks.add(new ListTask(group.getKey(), group.getValue()));
+            }
+        }
+
+        addStatTasks(tasks, stats);
+        return tasks;
+    }
+
+    private static void addStatTasks(List<Task> tasks, IntList indexes) {
+
+        for (int from = 0; from < indexes.size; from += STAT_BATCH) {
+            tasks.add(new StatTask(indexes, from, Math.min(indexes.size, from + STAT_BATCH)));
+        }
+    }
+
+    private interface Task {
+        BitSet run(List<Path> paths);
+    }
+
+    /**
+     * Stat each path.
+     */
+    private static final class StatTask implements Task {
+
+        private final IntList indexes;
+        private final int from;
+        private final int to;
+
+        StatTask(IntList indexes, int from, int to) {
+            this.indexes = indexes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public BitSet run(List<Path> paths) {
+
+            BitSet missing = new BitSet();
+
+            for (int i = from; i < to; i++) {
+
+                int index = indexes.values[i];
+
+                if (!Val.exists(paths.get(index))) {
+                    missing.set(index);
+                }
+            }
+
+            return missing;
+        }
+    }
+
+    /**
+     * List the directory once, and look the paths up by name.
+     */
+    private static final class ListTask implements Task {
+
+        private final Path dir;
+        private final IntList indexes;
+
+        // Set when the dir itself isn't there, so nothing in it can be.
+        private boolean dirMissing;
+
+        // Null until we need to know.
+        @Nullable
+        private Boolean ignoresCase;
+
+        ListTask(Path dir, IntList indexes) {
+            this.dir = dir;
+            this.indexes = indexes;
+        }
+
+        @Override
+        public BitSet run(List<Path> paths) {
+
+            Set<String> names = listNames();
+            BitSet missing = new BitSet();
+
+            if (dirMissing) {
+
+                for (int i = 0; i < indexes.size; i++) {
+                    missing.set(indexes.values[i]);
+                }
+
+                return missing;
+            }
+
+            for (int i = 0; i < indexes.size; i++) {
+
+                int index = indexes.values[i];
+                Path path = paths.get(index);
+
+                if (names == null) {
+
+                    if (!Val.exists(path)) {
+                        missing.set(index);
+                    }
+
+                } else if (!names.contains(path.getFileName().toString())) {
+
+                    // Not listed doesn't prove it's missing if the file system ignores case,
+                    // or for names like "." and "..", so double-check those.
+                    if ((ignoresCase(names) || isDots(path)) && Val.exists(path)) {
+                        continue;
+                    }
+
+                    missing.set(index);
+                }
+            }
+
+            return missing;
+        }
+
+        /**
+         * Does the dir find names in a different case, like on Windows and macOS?
+         * Asks the file system about one listed name with its case flipped. Only asks once per task.
+         */
+        private boolean ignoresCase(Set<String> names) {
+
+            if (ignoresCase == null) {
+
+                ignoresCase = false;
+
+                for (String name : names) {
+
+                    String flipped = flipCase(name);
+
+                    if (!flipped.equals(name) && !names.contains(flipped)) {
+                        ignoresCase = Files.exists(dir.resolve(flipped));
+                        break;
+                    }
+                }
+            }
+
+            return ignoresCase;
+        }
+
+        /**
+         * The names in the dir, or null if it's too big to be worth listing or we can't list it.
+         */
+        @Nullable
+        private Set<String> listNames() {
+
+            int maxEntries = indexes.size * MAX_ENTRIES_PER_PATH;
+            Set<String> names = new HashSet<>(indexes.size * 2);
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+
+                for (Path entry : entries) {
+
+                    if (names.size() == maxEntries) {
+                        return null;
+                    }
+
+                    names.add(entry.getFileName().toString());
+                }
+
+            } catch (NoSuchFileException | NotDirectoryException e) {
+                dirMissing = true;
+                return null;
+            } catch (IOException | RuntimeException e) {
+                // No permission, etc. The stat()s will sort it out.
+                return null;
+            }
+
+            return names;
+        }
+    }
+
+    private static boolean isDots(Path path) {
+        String name = path.getFileName().toString();
+        return ".".equals(name) || "..".equals(name);
+    }
+
+    private static String flipCase(String name) {
+
+        char[] chars = name.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            char c = chars[i];
+            chars[i] = Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c);
+        }
+
+        return new String(chars);
+    }
+
+    /**
+     * A growable list of ints, so grouping 100k indexes doesn't box 100k Integers.
+     */
+    private static final class IntList {
+
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+
+            if (size == values.length) {
+                int[] bigger = new int[size * 2];
+                System.arraycopy(values, 0, bigger, 0, size);
+                values = bigger;
+            }
+
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Counts for one of our caches ({@link PatternCache}, {@link ExistsCache}), as of when the snapshot was taken.
+ */
+@ParametersAreNonnullByDefault
+public abstract class CacheStats {
+
+    private final String cacheName;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    CacheStats(String cacheName, ClockCache<?, ?> cache) {
+        this.cacheName = cacheName;
+        this.hits = cache.hits();
+        this.misses = cache.misses();
+        this.evictions = cache.evictions();
+        this.size = cache.size();
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long evictions() {
+        return evictions;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hits over total lookups, or 0 if there haven't been any.
+     */
+    public double hitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s.Stats[hits=%d, misses=%d, evictions=%d, size=%d, hitRate=%.2f]",
+            cacheName, hits, misses, evictions, size, hitRate());
+    }
+}
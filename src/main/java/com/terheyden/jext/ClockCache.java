@@ -0,0 +1,191 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * The parts {@link PatternCache} and {@link ExistsCache} share: a ConcurrentHashMap with a size limit,
+ * and the hit / miss / eviction counts.
+ *
+ * When full, the least recently used entries are evicted first, using the CLOCK approximation of LRU:
+ * a hit just marks the entry as used, and the eviction sweep gives each marked entry a second chance.
+ * The owner does its own lookups and inserts on {@link #entries()}, then reports them here.
+ */
+@ParametersAreNonnullByDefault
+final class ClockCache<K, E extends ClockCache.Entry> {
+
+    private final int maxSize;
+    private final ConcurrentHashMap<K, E> entries;
+
+    // The CLOCK: every cached key, in insertion order. The sweep pulls from the head
+    // and moves recently used keys to the back.
+    private final Queue<K> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    // Told about every key that's evicted or cleared, after it's gone from the map.
+    private final Consumer<K> onRemove;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * @param maxSize the most entries to keep; must be at least 1
+     */
+    ClockCache(int maxSize, Consumer<K> onRemove) {
+
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1: " + maxSize);
+        }
+
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024) * 4 / 3 + 1);
+        this.onRemove = onRemove;
+    }
+
+    ClockCache(int maxSize) {
+        this(maxSize, key -> { });
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // ENTRIES:
+
+    /**
+     * The map itself. Only add keys that {@link #added(Object)} is then called for,
+     * and only remove them through this class.
+     */
+    ConcurrentHashMap<K, E> entries() {
+        return entries;
+    }
+
+    @Nullable
+    E get(K key) {
+        return entries.get(key);
+    }
+
+    void hit(E entry) {
+        hits.increment();
+        entry.touch();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    /**
+     * Give a key that was just added to {@link #entries()} its place in the clock,
+     * and evict if that made us too big.
+     */
+    void added(K key) {
+
+        clock.add(key);
+
+        if (size.incrementAndGet() > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Sweep the clock until we're back down to size.
+     * Recently used keys lose their mark and go to the back; the first unmarked key is evicted.
+     */
+    private void evict() {
+
+        while (size.get() > maxSize) {
+
+            K key = clock.poll();
+
+            // Another thread is mid-insert, or already evicted what we needed.
+            if (key == null) {
+                return;
+            }
+
+            E entry = entries.get(key);
+
+            if (entry != null && entry.used) {
+                entry.used = false;
+                clock.add(key);
+                continue;
+            }
+
+            if (entry != null && entries.remove(key, entry)) {
+                size.decrementAndGet();
+                evictions.increment();
+                onRemove.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Remove every entry. The stats are kept.
+     */
+    void clear() {
+
+        K key;
+
+        while ((key = clock.poll()) != null) {
+            if (entries.remove(key) != null) {
+                size.decrementAndGet();
+                onRemove.accept(key);
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STATS:
+
+    int size() {
+        return size.get();
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    long evictions() {
+        return evictions.sum();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // INTERNAL:
+
+    /**
+     * What the cache holds; subclasses add the cached value.
+     */
+    abstract static class Entry {
+
+        // The CLOCK mark. A lost update just means one extra sweep, so no need for atomics.
+        volatile boolean used;
+
+        void touch() {
+            // Skip the write when already marked, so hot entries don't ping-pong cache lines between cores.
+            if (!used) {
+                used = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A finished regex from {@link RegexBuilder#compile()}.
+ * Immutable and thread-safe, so build it once and keep it in a static field:
+ *
+ *   private static final CompiledRegex EMAIL = RegexBuilder.regex("{email}")
+ *       .var("{word}", "[A-Za-z0-9._-]+")
+ *       .var("{email}", "{word}@{word}", "email")
+ *       .compile();
+ *
+ *   EMAIL.matches(text);
+ *   EMAIL.findGroup(text, "email");
+ *
+ * Each thread reuses its own Matcher, so matching doesn't allocate one per call.
+ *
+ * Matching untrusted text? Give it a {@link MatchBudget}, so a match that backtracks
+ * out of control gets aborted instead of hanging.
+ *
+ * Text too big for a String, like a multi-gigabyte log? Stream it with one of the
+ * forEachMatch() methods, which work on a Reader, a channel, or a memory-mapped file.
+ */
+@ParametersAreNonnullByDefault
+public final class CompiledRegex {
+
+    private final Pattern pattern;
+
+    // Named group -> group number, in the order they appear.
+    private final Map<String, Integer> groupIndex;
+
+    private final ThreadLocal<Matcher> matchers;
+
+    // Null for no limits.
+    @Nullable
+    private final MatchBudget budget;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    CompiledRegex(Pattern pattern, @Nullable MatchBudget budget) {
+        this.pattern = pattern;
+        this.groupIndex = Collections.unmodifiableMap(findNamedGroups(pattern));
+        this.matchers = ThreadLocal.withInitial(() -> pattern.matcher(""));
+        this.budget = budget;
+    }
+
+    CompiledRegex(Pattern pattern) {
+        this(pattern, null);
+    }
+
+    /**
+     * Return a copy of this regex that aborts any match that runs over [budget].
+     */
+    public CompiledRegex withBudget(MatchBudget budget) {
+        return new CompiledRegex(pattern, budget);
+    }
+
+    /**
+     * Map each (?<name>...) group to its group number.
+     * Java 8's Pattern keeps this to itself, so we count the capturing groups ourselves.
+     */
+    static Map<String, Integer> findNamedGroups(Pattern pattern) {
+
+        String regex = pattern.pattern();
+        Map<String, Integer> groups = new LinkedHashMap<>();
+
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return groups;
+        }
+
+        int group = 0;
+        boolean inClass = false;
+        boolean quoted = false;
+
+        for (int i = 0; i < regex.length(); i++) {
+
+            char c = regex.charAt(i);
+
+            if (quoted) {
+                // Everything is literal until \E.
+                if (regex.startsWith("\\E", i)) {
+                    quoted = false;
+                    i++;
+                }
+            } else if (c == '\\') {
+                quoted = regex.startsWith("Q", i + 1);
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+
+                boolean special = regex.startsWith("?", i + 1);
+                boolean named = regex.startsWith("?<", i + 1)
+                    && i + 3 < regex.length()
+                    && Character.isLetter(regex.charAt(i + 3));
+
+                if (!special) {
+                    group++;
+                } else if (named) {
+                    group++;
+                    groups.put(regex.substring(i + 3, regex.indexOf('>', i + 3)), group);
+                }
+            }
+        }
+
+        return groups;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // INFO:
+
+    public Pattern pattern() {
+        return pattern;
+    }
+
+    public String regex() {
+        return pattern.pattern();
+    }
+
+    public int flags() {
+        return pattern.flags();
+    }
+
+    /**
+     * The limits on each match, or null if there are none.
+     */
+    @Nullable
+    public MatchBudget budget() {
+        return budget;
+    }
+
+    /**
+     * The named groups in the regex, in the order they appear.
+     */
+    public Set<String> groupNames() {
+        return groupIndex.keySet();
+    }
+
+    /**
+     * Return the group number of the named group, or -1 if there is no such group.
+     */
+    public int groupIndex(String groupName) {
+        Integer index = groupIndex.get(groupName);
+        return index == null ? -1 : index;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // MATCH:
+
+    /**
+     * Return a new Matcher of our own, for when you need to walk through all the matches.
+     */
+    public Matcher matcher(CharSequence text) {
+        return pattern.matcher(text);
+    }
+
+    /**
+     * Return true if the regex is found in the text.
+     * Same as {@link RegexBuilder#matches(String)}.
+     * Also returns false if the match ran out of budget; use {@link #tryMatches(CharSequence)} to tell the difference.
+     */
+    public boolean matches(@Nullable CharSequence text) {
+
+        if (text == null) {
+            return false;
+        }
+
+        Matcher mat = reset(text);
+
+        try {
+            return mat.find();
+        } catch (MatchBudget.Exceeded e) {
+            budget.recordAbort(e);
+            return false;
+        } finally {
+            mat.reset("");
+        }
+    }
+
+    /**
+     * Return an Ok Result with true if the regex is found in the text, false if not.
+     * Returns a Fail Result if the match ran out of budget.
+     */
+    public Result<Boolean> tryMatches(@Nullable CharSequence text) {
+
+        if (text == null) {
+            return Result.ok(false);
+        }
+
+        Matcher mat = reset(text);
+
+        try {
+            return Result.ok(mat.find());
+        } catch (MatchBudget.Exceeded e) {
+            return Result.fail(budget.recordAbort(e));
+        } finally {
+            mat.reset("");
+        }
+    }
+
+    /**
+     * Find the first match in the text.
+     * Returns an Ok Result holding the match, or a Fail Result if there isn't one
+     * or the match ran out of budget.
+     */
+    public Result<MatchResult> find(@Nullable CharSequence text) {
+
+        if (text == null) {
+            return Result.fail("Text is null.");
+        }
+
+        Matcher mat = reset(text);
+
+        try {
+            return mat.find() ? Result.ok(mat.toMatchResult()) : Result.fail();
+        } catch (MatchBudget.Exceeded e) {
+            return Result.fail(budget.recordAbort(e));
+        } finally {
+            mat.reset("");
+        }
+    }
+
+    /**
+     * Find the first match in the text, and return what the named group captured.
+     * Returns null if there's no match, the group didn't capture, there's no such group,
+     * or the match ran out of budget.
+     */
+    @Nullable
+    public String findGroup(@Nullable CharSequence text, String groupName) {
+
+        int group = groupIndex(groupName);
+
+        if (text == null || group < 0) {
+            return null;
+        }
+
+        Matcher mat = reset(text);
+
+        try {
+            return mat.find() ? mat.group(group) : null;
+        } catch (MatchBudget.Exceeded e) {
+            budget.recordAbort(e);
+            return null;
+        } finally {
+            mat.reset("");
+        }
+    }
+
+    /**
+     * Get this thread's Matcher, ready to match the text within our budget.
+     */
+    private Matcher reset(CharSequence text) {
+        return matchers.get().reset(budgeted(text));
+    }
+
+    /**
+     * Wrap the text so a match on it stays within our budget, if we have one.
+     */
+    CharSequence budgeted(CharSequence text) {
+        return budget == null ? text : budget.wrap(text);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STREAM:
+
+    /**
+     * Find each match in the text from [reader], without reading it all into memory.
+     * Matches are reported to [visitor] as they're found; return false from it to stop.
+     * The reader is left open.
+     *
+     * Only a window of the text is held in memory, at most [maxWindowChars] chars,
+     * so a match longer than about half of that can be missed.
+     *
+     * @return an Ok Result with the number of matches, or a Fail Result if a match ran out of budget
+     */
+    public Result<Long> forEachMatch(Reader reader, int maxWindowChars, Predicate<StreamMatch> visitor)
+        throws IOException {
+
+        return StreamScanner.scan(this, reader, maxWindowChars, visitor);
+    }
+
+    public Result<Long> forEachMatch(Reader reader, Predicate<StreamMatch> visitor) throws IOException {
+        return StreamScanner.scan(this, reader, StreamScanner.DEFAULT_MAX_WINDOW, visitor);
+    }
+
+    /**
+     * Find each match in the bytes from [channel], decoded with [charset].
+     * Offsets in the matches are char offsets, not byte offsets. The channel is left open.
+     */
+    public Result<Long> forEachMatch(ReadableByteChannel channel, Charset charset, Predicate<StreamMatch> visitor)
+        throws IOException {
+
+        CharsetDecoder decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        // Don't close the reader; that would close their channel.
+        return forEachMatch(Channels.newReader(channel, decoder, -1), visitor);
+    }
+
+    /**
+     * Find each match in the file, decoded with [charset].
+     * The file is memory-mapped a segment at a time, so even huge files stay out of the heap.
+     * Offsets in the matches are char offsets, not byte offsets.
+     */
+    public Result<Long> forEachMatch(Path file, Charset charset, Predicate<StreamMatch> visitor) throws IOException {
+
+        try (Reader reader = StreamScanner.mappedReader(file, charset)) {
+            return forEachMatch(reader, visitor);
+        }
+    }
+
+    public Result<Long> forEachMatch(Path file, Predicate<StreamMatch> visitor) throws IOException {
+        return forEachMatch(file, StandardCharsets.UTF_8, visitor);
+    }
+
+    @Override
+    public String toString() {
+        return pattern.pattern();
+    }
+}
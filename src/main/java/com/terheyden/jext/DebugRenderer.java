@@ -0,0 +1,455 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Writes the {@link Val#toDebugStr(Object)} form of an object straight into an Appendable,
+ * e.g. a StringBuilder or a Writer, without building up strings along the way:
+ *
+ *   new DebugRenderer().maxChars(500).render(bigMap, logLine);
+ *
+ * Collections, maps, arrays and iterables come out as [ClassName:size=elem,elem,...].
+ * Past [maxDepth], only the class name and size are written.
+ *
+ * Output is kept within a budget, so a huge map can't blow up a log line:
+ * - at most [maxElements] elements are written per container, then ",...(+N more)"
+ * - at most [maxChars] chars are written in total, then "...(truncated)"
+ * Iterables are never iterated past [maxElements], so even endless ones are safe.
+ * A container that contains itself is written as "(this ClassName)".
+ *
+ * Anything else is written with toString(), unless you register a {@link Formatter} for it with
+ * {@link Val#registerDebugFormatter(Class, Formatter)}. Formatters are looked up once per class.
+ *
+ * The settings aren't thread-safe, but rendering is: set up once, then share.
+ */
+@ParametersAreNonnullByDefault
+public final class DebugRenderer {
+
+    public static final int DEFAULT_MAX_DEPTH = 1;
+    public static final int DEFAULT_MAX_ELEMENTS = 100;
+    public static final int DEFAULT_MAX_CHARS = 8192;
+
+    static final String TRUNCATED = "...(truncated)";
+
+    // On Java 8, getSimpleName() works it out from scratch every time.
+    private static final ClassValue<String> SIMPLE_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return type.getSimpleName();
+        }
+    };
+
+    // How to render each type: a registered formatter, or one of the built-ins below.
+    private static final TypeRegistry<Kind> KINDS = new TypeRegistry<>(DebugRenderer::builtInKind);
+
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+    private int maxElements = DEFAULT_MAX_ELEMENTS;
+    private int maxChars = DEFAULT_MAX_CHARS;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * How many levels of containers to write the elements of. At 0, only the outermost
+     * container's size is written; at 1 (the default), its elements are written too.
+     */
+    public DebugRenderer maxDepth(int maxDepth) {
+
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("Max depth can't be negative: " + maxDepth);
+        }
+
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * The most elements to write (and the most to iterate) per collection, map, array or iterable.
+     */
+    public DebugRenderer maxElements(int maxElements) {
+
+        if (maxElements < 0) {
+            throw new IllegalArgumentException("Max elements can't be negative: " + maxElements);
+        }
+
+        this.maxElements = maxElements;
+        return this;
+    }
+
+    /**
+     * The most chars to write, not counting the truncation marker.
+     */
+    public DebugRenderer maxChars(int maxChars) {
+
+        if (maxChars < 0) {
+            throw new IllegalArgumentException("Max chars can't be negative: " + maxChars);
+        }
+
+        this.maxChars = maxChars;
+        return this;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // RENDER:
+
+    /**
+     * Write [obj] to [out], and return [out].
+     */
+    public <A extends Appendable> A render(@Nullable Object obj, A out) throws IOException {
+        new Output(out).render(obj, 0);
+        return out;
+    }
+
+    /**
+     * Append [obj] to [out], and return [out]. Same as the Appendable version, minus the IOException.
+     */
+    public StringBuilder render(@Nullable Object obj, StringBuilder out) {
+
+        try {
+            new Output(out).render(obj, 0);
+            return out;
+        } catch (IOException e) {
+            // StringBuilders don't throw.
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String render(@Nullable Object obj) {
+        return render(obj, new StringBuilder()).toString();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // FORMATTERS:
+
+    /**
+     * Writes the debug form of a [T]. Register with {@link Val#registerDebugFormatter(Class, Formatter)}.
+     */
+    @FunctionalInterface
+    public interface Formatter<T> {
+
+        /**
+         * Write [obj] (never null) to [out]. Anything past the renderer's char budget is cut off for you.
+         */
+        void format(T obj, Appendable out) throws IOException;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> void registerFormatter(Class<T> type, Formatter<? super T> formatter) {
+        Formatter<Object> objFormatter = (Formatter<Object>) formatter;
+        KINDS.register(type, (out, obj, depth) -> objFormatter.format(obj, out));
+    }
+
+    static void unregisterFormatter(Class<?> type) {
+        KINDS.unregister(type);
+    }
+
+    /**
+     * How to render one type.
+     */
+    private interface Kind {
+        void render(Output out, Object obj, int depth) throws IOException;
+    }
+
+    /**
+     * Work out how to render [type], when nobody's registered a formatter for it. Runs once per type.
+     */
+    private static Kind builtInKind(Class<?> type) {
+
+        // Path is an Iterable, so this check goes way up here.
+        if (Path.class.isAssignableFrom(type)) {
+            return (out, obj, depth) -> out.append(((Path) obj).toAbsolutePath().toString());
+        } else if (File.class.isAssignableFrom(type)) {
+            return (out, obj, depth) -> out.append(((File) obj).getAbsolutePath());
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return (out, obj, depth) -> out.renderElements(obj, ((Collection<?>) obj).size(),
+                ((Collection<?>) obj).iterator(), depth);
+        } else if (Iterable.class.isAssignableFrom(type)) {
+            return (out, obj, depth) -> out.renderIterable((Iterable<?>) obj, depth);
+        } else if (type.isArray()) {
+            return Output::renderArray;
+        } else if (Map.class.isAssignableFrom(type)) {
+            return (out, obj, depth) -> out.renderElements(obj, ((Map<?, ?>) obj).size(),
+                ((Map<?, ?>) obj).entrySet().iterator(), depth);
+        } else if (type == String.class) {
+            return (out, obj, depth) -> out.append('"').append((String) obj).append('"');
+        }
+
+        // Primitive wrappers, or probably a custom class.
+        return (out, obj, depth) -> out.append(obj.toString());
+    }
+
+    /**
+     * One rendering: where it's going, how much budget is left, and which containers we're inside.
+     */
+    private final class Output implements Appendable {
+
+        private final Appendable out;
+        private int remaining = maxChars;
+        private boolean full;
+
+        // The containers we're inside of, to catch cycles. Only as deep as maxDepth, so a list is fine.
+        private final List<Object> inside = new ArrayList<>(4);
+
+        Output(Appendable out) {
+            this.out = out;
+        }
+
+        void render(@Nullable Object arg, int depth) throws IOException {
+
+            if (full) {
+                return;
+            }
+
+            if (arg == null) {
+                append("null");
+            } else {
+                KINDS.get(arg.getClass()).render(this, arg, depth);
+            }
+        }
+
+        /**
+         * Write [Name:size=elem,elem,...], where the elements come from [iter].
+         * Map entries are written as key:val.
+         */
+        void renderElements(Object container, int size, Iterator<?> iter, int depth) throws IOException {
+
+            if (size == 0) {
+                append("[]");
+                return;
+            }
+
+            if (!enter(container)) {
+                return;
+            }
+
+            append('[');
+            append(SIMPLE_NAMES.get(container.getClass()));
+            append(':');
+            append(Integer.toString(size));
+
+            if (depth < maxDepth) {
+
+                append('=');
+                int count = 0;
+
+                while (iter.hasNext() && count < maxElements && !full) {
+
+                    if (count++ > 0) {
+                        append(',');
+                    }
+
+                    Object elem = iter.next();
+
+                    if (elem instanceof Entry<?, ?> && container instanceof Map<?, ?>) {
+                        Entry<?, ?> entry = (Entry<?, ?>) elem;
+                        render(entry.getKey(), depth + 1);
+                        append(':');
+                        render(entry.getValue(), depth + 1);
+                    } else {
+                        render(elem, depth + 1);
+                    }
+                }
+
+                appendMore(count, size - count);
+            }
+
+            append(']');
+            exit();
+        }
+
+        /**
+         * Like renderElements(), but we don't know the size, and won't iterate past [maxElements] to find out.
+         * So we count first (up to the limit), then go around again to write.
+         */
+        void renderIterable(Iterable<?> iterable, int depth) throws IOException {
+
+            Iterator<?> iter = iterable.iterator();
+            int count = 0;
+
+            while (count <= maxElements && iter.hasNext()) {
+                iter.next();
+                count++;
+            }
+
+            if (count == 0) {
+                append("[]");
+                return;
+            }
+
+            if (!enter(iterable)) {
+                return;
+            }
+
+            // One more than the limit means there are more, but we didn't count them.
+            boolean more = count > maxElements;
+            int shown = Math.min(count, maxElements);
+
+            append('[');
+            append(SIMPLE_NAMES.get(iterable.getClass()));
+            append(':');
+            append(Integer.toString(shown));
+            append(more ? "+" : "");
+
+            if (depth < maxDepth) {
+
+                append('=');
+                iter = iterable.iterator();
+
+                for (int i = 0; i < shown && iter.hasNext() && !full; i++) {
+
+                    if (i > 0) {
+                        append(',');
+                    }
+
+                    render(iter.next(), depth + 1);
+                }
+
+                if (more && !full) {
+                    append(shown > 0 ? ",..." : "...");
+                }
+            }
+
+            append(']');
+            exit();
+        }
+
+        void renderArray(Object arr, int depth) throws IOException {
+
+            int len = Array.getLength(arr);
+
+            if (len == 0) {
+                append("[]");
+                return;
+            }
+
+            if (!enter(arr)) {
+                return;
+            }
+
+            append('[');
+            append(SIMPLE_NAMES.get(arr.getClass()));
+            append(':');
+            append(Integer.toString(len));
+
+            if (depth < maxDepth) {
+
+                append('=');
+                int count = Math.min(len, maxElements);
+                Object[] objs = arr instanceof Object[] ? (Object[]) arr : null;
+
+                for (int i = 0; i < count && !full; i++) {
+
+                    if (i > 0) {
+                        append(',');
+                    }
+
+                    render(objs != null ? objs[i] : Array.get(arr, i), depth + 1);
+                }
+
+                appendMore(count, len - count);
+            }
+
+            append(']');
+            exit();
+        }
+
+        /**
+         * Note the elements we skipped, if any.
+         */
+        private void appendMore(int shown, int skipped) throws IOException {
+
+            if (skipped > 0 && !full) {
+                append(shown > 0 ? ",...(+" : "...(+");
+                append(Integer.toString(skipped));
+                append(" more)");
+            }
+        }
+
+        /**
+         * Step inside a container. Returns false, after writing a note, if we're already inside it.
+         */
+        private boolean enter(Object container) throws IOException {
+
+            for (int i = 0; i < inside.size(); i++) {
+                if (inside.get(i) == container) {
+                    append("(this ");
+                    append(SIMPLE_NAMES.get(container.getClass()));
+                    append(")");
+                    return false;
+                }
+            }
+
+            inside.add(container);
+            return true;
+        }
+
+        private void exit() {
+            inside.remove(inside.size() - 1);
+        }
+
+        ////////////////////////////////////////////////////////////////////////////////
+        // APPENDABLE (within budget):
+
+        @Override
+        public Output append(@Nullable CharSequence str) throws IOException {
+            return str == null ? append("null", 0, 4) : append(str, 0, str.length());
+        }
+
+        @Override
+        public Output append(@Nullable CharSequence str, int start, int end) throws IOException {
+
+            if (str == null) {
+                return append("null", start, end);
+            }
+
+            if (full) {
+                return this;
+            }
+
+            int len = end - start;
+
+            if (len <= remaining) {
+                out.append(str, start, end);
+                remaining -= len;
+                return this;
+            }
+
+            out.append(str, start, start + remaining);
+            out.append(TRUNCATED);
+            remaining = 0;
+            full = true;
+            return this;
+        }
+
+        @Override
+        public Output append(char c) throws IOException {
+
+            if (full) {
+                return this;
+            }
+
+            if (remaining > 0) {
+                out.append(c);
+                remaining--;
+                return this;
+            }
+
+            out.append(TRUNCATED);
+            full = true;
+            return this;
+        }
+    }
+}
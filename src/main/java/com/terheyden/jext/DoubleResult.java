@@ -0,0 +1,142 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+
+/**
+ * A {@link Result} holding a double, without boxing it.
+ * Fails and value-less Oks without a message are shared, so they don't allocate at all.
+ * Immutable and Serializable.
+ */
+@ParametersAreNonnullByDefault
+public final class DoubleResult extends PrimitiveResult {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final DoubleResult OK = new DoubleResult(Result.Status.Ok, false, 0, null, null);
+    private static final DoubleResult FAIL = new DoubleResult(Result.Status.Fail, false, 0, null, null);
+
+    private final double value;
+
+    private DoubleResult(Result.Status status, boolean hasValue, double value, @Nullable String msg, @Nullable Exception cause) {
+        super(status, hasValue, msg, cause);
+        this.value = value;
+    }
+
+    /**
+     * Deserialize into the shared instances too, so they stay the only ones.
+     */
+    private Object readResolve() {
+        return hasValue() || hasMsg() || hasCause() ? this : isOk() ? OK : FAIL;
+    }
+
+    public static DoubleResult ok(double resultVal, @Nullable String resultMsg) {
+        return new DoubleResult(Result.Status.Ok, true, resultVal, resultMsg, null);
+    }
+
+    public static DoubleResult ok(double resultVal) {
+        return new DoubleResult(Result.Status.Ok, true, resultVal, null, null);
+    }
+
+    public static DoubleResult ok() {
+        return OK;
+    }
+
+    public static DoubleResult fail(@Nullable String resultMsg) {
+        return resultMsg == null ? FAIL : new DoubleResult(Result.Status.Fail, false, 0, resultMsg, null);
+    }
+
+    public static DoubleResult fail() {
+        return FAIL;
+    }
+
+    /**
+     * A fail caused by [cause], with its message. A null cause gives a plain {@link #fail()}.
+     * Passing a literal null to fail() is ambiguous now; cast it to String or Exception.
+     */
+    public static DoubleResult fail(@Nullable Exception cause) {
+        return cause == null ? fail() : new DoubleResult(Result.Status.Fail, false, 0, cause.getMessage(), cause);
+    }
+
+    public static DoubleResult fail(@Nullable String resultMsg, @Nullable Exception cause) {
+        return cause == null ? fail(resultMsg) : new DoubleResult(Result.Status.Fail, false, 0, resultMsg, cause);
+    }
+
+    /**
+     * Unbox [result], keeping its message and cause. A null value comes out as no value.
+     * Longs too big for a double to hold exactly are rounded, like any long to double conversion.
+     */
+    public static DoubleResult from(Result<? extends Number> result) {
+
+        Number num = result.getValue();
+
+        if (num == null && !result.hasMsg() && !result.hasCause()) {
+            return result.isOk() ? OK : FAIL;
+        }
+
+        Result.Status status = result.isOk() ? Result.Status.Ok : Result.Status.Fail;
+        return new DoubleResult(status, num != null, num == null ? 0 : num.doubleValue(), result.getMsg(), result.getCause());
+    }
+
+    /**
+     * Box this into a regular {@link Result}, keeping the message and cause.
+     */
+    public Result<Double> toResult() {
+        return boxed(hasValue() ? (Double) value : null);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // VALUE:
+
+    public double orElse(double defaultVal) {
+        return hasValue() ? value : defaultVal;
+    }
+
+    public double orElseGet(DoubleSupplier defaultVal) {
+        return hasValue() ? value : defaultVal.getAsDouble();
+    }
+
+    /**
+     * Return the value, or throw a {@link Failure} with [throwMsg] (and our cause, if any).
+     */
+    public double getValueOrThrow(String throwMsg) throws Exception {
+        throwIfNoValue(throwMsg);
+        return value;
+    }
+
+    /**
+     * Return the value, or throw our cause. With no cause, throws a shared, stackless {@link Failure}.
+     */
+    public double getValueOrThrow() throws Exception {
+        throwIfNoValue();
+        return value;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one. Status, message, and cause are kept.
+     */
+    public DoubleResult map(DoubleUnaryOperator mapper) {
+        return hasValue() ? new DoubleResult(getStatus(), true, mapper.applyAsDouble(value), getMsg(), getCause()) : this;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one, and box the answer into a {@link Result}.
+     */
+    public <T> Result<T> mapToObj(DoubleFunction<? extends T> mapper) {
+        return boxed(hasValue() ? mapper.apply(value) : null);
+    }
+
+    public DoubleStream resultStream() {
+        return hasValue() ? DoubleStream.of(value) : DoubleStream.empty();
+    }
+
+    @Override
+    String valueString() {
+        return String.valueOf(value);
+    }
+}
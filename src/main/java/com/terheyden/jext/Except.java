@@ -1,5 +1,10 @@
 package com.terheyden.jext;
 
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
 
 /**
@@ -42,6 +47,18 @@ public final class Except {
         }
     }
 
+    /**
+     * Run [func], and return an Ok result, or a fail with the exception thrown as its cause.
+     */
+    public static Result<Void> attempt(ThrowableRunner func) {
+        try {
+            func.run();
+            return Result.ok();
+        } catch (Exception t) {
+            return Result.fail(t);
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////
     // THROWABLE SUPPLIER:
 
@@ -87,6 +104,56 @@ public final class Except {
         }
     }
 
+    /**
+     * Like {@link #ignore(ThrowableSupplier)}, but you find out why it failed:
+     * returns the value as an Ok result, or a fail with the exception thrown as its cause.
+     */
+    public static <T> Result<T> attempt(ThrowableSupplier<T> func) {
+        try {
+            return Result.ok(func.get());
+        } catch (Exception t) {
+            return Result.fail(t);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // RETRY:
+
+    /**
+     * Call [func] until it works, or [policy] says to give up; sleeps in between, in this thread.
+     * The returned future is already done: Ok with the value, or a fail with the last exception as its cause.
+     */
+    public static <T> CompletableFuture<Result<T>> retry(ThrowableSupplier<T> func, RetryPolicy policy) {
+        return new RetryTask<>(func, policy, null).start();
+    }
+
+    /**
+     * Same, but the retries are scheduled on [scheduler] (and run there), so no thread waits out the delays.
+     * The first try still runs right away, in this thread. Cancel the future to stop retrying.
+     */
+    public static <T> CompletableFuture<Result<T>> retry(
+        ThrowableSupplier<T> func, RetryPolicy policy, @Nullable ScheduledExecutorService scheduler) {
+
+        return new RetryTask<>(func, policy, scheduler).start();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // FAILURES:
+
+    /**
+     * A {@link Failure} to throw, e.g. for bad input: like an IllegalStateException, but without the stack trace.
+     */
+    public static Failure failure(String errMsg, Object... errMsgArgs) {
+        return Failure.of(Str.fmt(errMsg, errMsgArgs));
+    }
+
+    /**
+     * A {@link Failure} to throw, caused by [cause]. Handy for rethrowing checked exceptions cheaply.
+     */
+    public static Failure failure(Exception cause) {
+        return cause instanceof Failure ? (Failure) cause : Failure.of(cause.getMessage(), cause);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////
     // THROWABLE FUNCTION:
 
@@ -94,4 +161,58 @@ public final class Except {
     public interface ThrowableFunction<T, R> {
         R apply(T val) throws Exception;
     }
+
+    @FunctionalInterface
+    public interface ThrowableBiFunction<T, U, R> {
+        R apply(T val1, U val2) throws Exception;
+    }
+
+    /**
+     * Apply [func] to [val], and return the answer as an Ok result, or a fail with the exception thrown as its cause.
+     */
+    public static <T, R> Result<R> attempt(ThrowableFunction<? super T, ? extends R> func, T val) {
+        try {
+            return Result.ok(func.apply(val));
+        } catch (Exception t) {
+            return Result.fail(t);
+        }
+    }
+
+    /**
+     * Apply [func] to every one of [vals], and collect up the answers and the failures.
+     * One failure doesn't stop the rest.
+     */
+    public static <T, R> BatchResult<R> attemptAll(
+        ThrowableFunction<? super T, ? extends R> func, List<? extends T> vals) {
+
+        BatchResult.Builder<R> results = new BatchResult.Builder<>(vals.size());
+        int index = 0;
+
+        for (T val : vals) {
+            attemptInto(results, index++, func, val);
+        }
+
+        return results.build();
+    }
+
+    public static <T, R> BatchResult<R> attemptAll(ThrowableFunction<? super T, ? extends R> func, T[] vals) {
+
+        BatchResult.Builder<R> results = new BatchResult.Builder<>(vals.length);
+
+        for (int i = 0; i < vals.length; i++) {
+            attemptInto(results, i, func, vals[i]);
+        }
+
+        return results.build();
+    }
+
+    private static <T, R> void attemptInto(BatchResult.Builder<R> results, int index,
+        ThrowableFunction<? super T, ? extends R> func, T val) {
+
+        try {
+            results.ok(index, func.apply(val));
+        } catch (Exception t) {
+            results.fail(index, t);
+        }
+    }
 }
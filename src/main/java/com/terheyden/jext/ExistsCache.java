@@ -0,0 +1,433 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, thread-safe cache of whether files exist, so checking the same paths
+ * over and over costs a hash lookup instead of a stat() call:
+ *
+ *   Val.useExistsCache(new ExistsCache(1024, 5, TimeUnit.SECONDS));
+ *   Val.throwIfAnyInvalid(inputDir, outputDir);     // Only stats each dir every 5 seconds.
+ *
+ * Each answer is trusted for the TTL, so a file created or deleted by someone else
+ * can take that long to show up. To hear about changes right away, {@link #watch(Path)}
+ * the directories they happen in, and the cache drops its answers as soon as the OS says so.
+ *
+ * Like {@link PatternCache}, reads never lock, and the least recently used entries
+ * are evicted first when full (CLOCK). Close the cache to stop watching.
+ */
+@ParametersAreNonnullByDefault
+public final class ExistsCache implements Closeable {
+
+    // How many invalidation counters there are. Paths share them by hash, so memory stays fixed;
+    // two paths sharing one only costs an extra stat() now and then.
+    private static final int STAMP_STRIPES = 64;
+
+    private final long ttlNanos;
+    private final ClockCache<Path, Entry> cache;
+
+    // Which cached paths are directly in each directory, so invalidateAll() only visits what's under it.
+    // A directory is listed in its parent while it's cached itself or has anything listed in it.
+    // Only touched on misses, evictions, and invalidations, never on hits, so it can just lock.
+    private final Map<Path, Set<Path>> children = new HashMap<>();
+
+    // Bumped when a path is invalidated, for it and everything under it. A miss adds up the counters
+    // for the path and its parents before and after asking the file system, to tell if the answer
+    // it's caching went out of date in the meantime.
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong clears = new AtomicLong();
+
+    // Created on the first call to watch().
+    @Nullable
+    private volatile Watcher watcher;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * @param maxSize the most paths to remember; must be at least 1
+     * @param ttl     how long to trust an answer before checking the file system again
+     */
+    public ExistsCache(int maxSize, long ttl, TimeUnit unit) {
+
+        if (ttl < 0) {
+            throw new IllegalArgumentException("TTL can't be negative: " + ttl);
+        }
+
+        this.ttlNanos = unit.toNanos(ttl);
+        this.cache = new ClockCache<>(maxSize, this::unindex);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // EXISTS:
+
+    /**
+     * Return true if the file or directory exists, asking the file system only if
+     * we haven't asked about [path] within the TTL.
+     */
+    public boolean exists(Path path) {
+
+        // Absolute, so relative and absolute paths to the same file share an entry,
+        // and so watch events (which are absolute) can find it. Free for paths that are already absolute.
+        Path key = path.toAbsolutePath();
+        Entry entry = cache.get(key);
+        long now = System.nanoTime();
+
+        if (entry != null && !entry.stale && now - entry.checkedAt < ttlNanos) {
+            cache.hit(entry);
+            return entry.exists;
+        }
+
+        cache.miss();
+        long stamp = stamp(key);
+        Entry fresh = new Entry(Files.exists(key), now, false);
+
+        if (entry != null) {
+            // Expired or invalidated. If someone else already refreshed or invalidated it,
+            // theirs wins; we still answer with what we just saw.
+            cache.entries().replace(key, entry, fresh);
+        } else if (cache.entries().putIfAbsent(key, fresh) == null) {
+            index(key);
+            cache.added(key);
+        }
+
+        // Invalidated while we were asking? Then what we just cached may already be out of date.
+        // (Checked after the put, so an invalidation either sees our entry or changes the stamp.)
+        if (stamp(key) != stamp) {
+            markStale(key);
+        }
+
+        return fresh.exists;
+    }
+
+    public boolean exists(File file) {
+        return exists(file.toPath());
+    }
+
+    /**
+     * Forget what we know about [path], so the next check asks the file system.
+     */
+    public void invalidate(Path path) {
+        Path key = path.toAbsolutePath();
+        stamps.incrementAndGet(stripe(key));
+        markStale(key);
+    }
+
+    /**
+     * Forget what we know about [path] and everything under it.
+     */
+    public void invalidateAll(Path path) {
+
+        Path dir = path.toAbsolutePath();
+        stamps.incrementAndGet(stripe(dir));
+
+        List<Path> keys = new ArrayList<>();
+
+        synchronized (children) {
+            collect(dir, keys);
+        }
+
+        for (Path key : keys) {
+            markStale(key);
+        }
+    }
+
+    /**
+     * Add [dir] and everything listed under it.
+     */
+    private void collect(Path dir, List<Path> keys) {
+
+        keys.add(dir);
+        Set<Path> inDir = children.get(dir);
+
+        if (inDir != null) {
+            for (Path child : inDir) {
+                collect(child, keys);
+            }
+        }
+    }
+
+    /**
+     * Keep the entry, so it keeps its place in the CLOCK, but make the next check ask the file system.
+     */
+    private void markStale(Path key) {
+        cache.entries().computeIfPresent(key, (k, entry) ->
+            entry.stale ? entry : new Entry(entry.exists, entry.checkedAt, true));
+    }
+
+    /**
+     * Sum up the invalidation counters for [key] and its parents.
+     * They only go up, so if the sum changed, one of them was invalidated.
+     */
+    private long stamp(Path key) {
+
+        long stamp = clears.get();
+
+        for (Path part = key; part != null; part = part.getParent()) {
+            stamp += stamps.get(stripe(part));
+        }
+
+        return stamp;
+    }
+
+    private static int stripe(Path key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STAMP_STRIPES - 1);
+    }
+
+    /**
+     * List a newly cached [key] in its directory, and that directory in its parent, and so on up,
+     * stopping at the first directory that was already listed.
+     */
+    private void index(Path key) {
+
+        synchronized (children) {
+
+            Path child = key;
+            Path dir;
+
+            while ((dir = child.getParent()) != null) {
+
+                Set<Path> inDir = children.get(dir);
+                boolean listed = inDir != null;
+
+                if (!listed) {
+                    inDir = new HashSet<>();
+                    children.put(dir, inDir);
+                }
+
+                inDir.add(child);
+
+                if (listed) {
+                    return;
+                }
+
+                child = dir;
+            }
+        }
+    }
+
+    /**
+     * Unlist an evicted [key], and any directories that were only listed for it.
+     * Stops at anything that's (still, or again) cached, or has other paths listed under it.
+     */
+    private void unindex(Path key) {
+
+        synchronized (children) {
+
+            Path child = key;
+            Path dir;
+
+            while (!cache.entries().containsKey(child)
+                && !children.containsKey(child)
+                && (dir = child.getParent()) != null) {
+
+                Set<Path> inDir = children.get(dir);
+
+                if (inDir == null) {
+                    return;
+                }
+
+                inDir.remove(child);
+
+                if (!inDir.isEmpty()) {
+                    return;
+                }
+
+                children.remove(dir);
+                child = dir;
+            }
+        }
+    }
+
+    /**
+     * Forget everything. The stats and watches are kept.
+     */
+    public void clear() {
+        clears.incrementAndGet();
+        cache.clear();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // WATCH:
+
+    /**
+     * Drop cached answers for the files in [dir] as soon as they're created or deleted,
+     * instead of waiting for the TTL. Only watches [dir] itself, not its subdirectories.
+     *
+     * Events arrive on a background thread, so there's still a short delay;
+     * on some platforms (e.g. macOS) the JDK polls, and the delay can be several seconds.
+     */
+    public ExistsCache watch(Path dir) throws IOException {
+
+        Path absDir = dir.toAbsolutePath();
+        watcher(absDir.getFileSystem()).register(absDir);
+        return this;
+    }
+
+    private synchronized Watcher watcher(FileSystem fileSystem) throws IOException {
+
+        Watcher current = watcher;
+
+        if (current == null) {
+            current = new Watcher(fileSystem.newWatchService());
+            current.start();
+            watcher = current;
+        }
+
+        return current;
+    }
+
+    /**
+     * Stop watching directories. The cache still works, on TTL alone.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+
+        Watcher current = watcher;
+        watcher = null;
+
+        if (current != null) {
+            current.service.close();
+        }
+    }
+
+    /**
+     * Takes events off the WatchService and invalidates the paths they're about.
+     */
+    private final class Watcher extends Thread {
+
+        private final WatchService service;
+
+        // What each key is watching, since WatchKey.watchable() is only an Object.
+        private final Map<WatchKey, Path> dirs = new ConcurrentHashMap<>();
+
+        Watcher(WatchService service) {
+            super("ExistsCache-watcher");
+            this.service = service;
+            setDaemon(true);
+        }
+
+        void register(Path dir) throws IOException {
+            dirs.put(dir.register(service,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE), dir);
+        }
+
+        @Override
+        public void run() {
+
+            try {
+
+                while (true) {
+
+                    WatchKey key = service.take();
+                    Path dir = dirs.get(key);
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+
+                        if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            // Missed some events, so we can't say what changed.
+                            clear();
+                        } else {
+                            // A whole directory may have come or gone.
+                            invalidateAll(dir.resolve((Path) event.context()));
+                        }
+                    }
+
+                    if (!key.reset()) {
+                        // The dir itself is gone (or unreadable), and so is everything we knew under it.
+                        dirs.remove(key);
+                        if (dir != null) {
+                            invalidateAll(dir);
+                        }
+                    }
+                }
+
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                // Closed; we're done.
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STATS:
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    public long ttl(TimeUnit unit) {
+        return unit.convert(ttlNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * A snapshot of this cache's hit / miss / eviction counts.
+     * An expired answer counts as a miss.
+     */
+    public Stats stats() {
+        return new Stats(cache);
+    }
+
+    /**
+     * Zero out the hit / miss / eviction counts.
+     */
+    public void resetStats() {
+        cache.resetStats();
+    }
+
+    /**
+     * Counts for an {@link ExistsCache}, as of when {@link ExistsCache#stats()} was called.
+     */
+    public static final class Stats extends CacheStats {
+
+        private Stats(ClockCache<?, ?> cache) {
+            super("ExistsCache", cache);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // INTERNAL:
+
+    private static final class Entry extends ClockCache.Entry {
+
+        private final boolean exists;
+        private final long checkedAt;
+
+        // Invalidated, so don't trust it even within the TTL.
+        private final boolean stale;
+
+        Entry(boolean exists, long checkedAt, boolean stale) {
+            this.exists = exists;
+            this.checkedAt = checkedAt;
+            this.stale = stale;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A cheap exception for failures that are expected, and common: bad input, missing values, etc.
+ * There's no stack trace (filling it in is most of the cost of an exception), and no suppressed exceptions.
+ *
+ * For the failures that happen most, make a constant once and throw it over and over:
+ *
+ *   private static final Failure BAD_HEADER = Failure.constant("BAD_HEADER", "Header is malformed.");
+ *
+ * When debugging, turn stack traces on with {@link #stackTraces(boolean)},
+ * or -Djext.failure.stackTraces=true. (Constants never have one, since they're shared.)
+ */
+@ParametersAreNonnullByDefault
+public class Failure extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private static volatile boolean stackTraces = Boolean.getBoolean("jext.failure.stackTraces");
+
+    @Nullable
+    private final String code;
+
+    protected Failure(@Nullable String code, @Nullable String msg, @Nullable Throwable cause, boolean stackTrace) {
+        super(msg, cause, false, stackTrace);
+        this.code = code;
+    }
+
+    public static Failure of(@Nullable String msg) {
+        return new Failure(null, msg, null, stackTraces);
+    }
+
+    public static Failure of(@Nullable String msg, @Nullable Throwable cause) {
+        return new Failure(null, msg, cause, stackTraces);
+    }
+
+    public static Failure of(String code, @Nullable String msg, @Nullable Throwable cause) {
+        return new Failure(code, msg, cause, stackTraces);
+    }
+
+    /**
+     * A shared failure for [code], to keep in a static final and throw as often as you like.
+     * Never has a stack trace, even when they're turned on.
+     */
+    public static Failure constant(String code, @Nullable String msg) {
+        return new Failure(code, msg, null, false);
+    }
+
+    /**
+     * Turn stack traces on or off for failures made from now on. Off by default.
+     */
+    public static void stackTraces(boolean enabled) {
+        stackTraces = enabled;
+    }
+
+    public static boolean stackTraces() {
+        return stackTraces;
+    }
+
+    /**
+     * The error code, if there is one.
+     */
+    public @Nullable String getCode() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        String msg = getLocalizedMessage();
+        String name = code == null ? getClass().getName() : getClass().getName() + "[" + code + "]";
+        return msg == null ? name : name + ": " + msg;
+    }
+}
@@ -0,0 +1,376 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Formattable;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * A String.format() pattern, parsed once, for formatting over and over:
+ *
+ *   private static final FormatTemplate NOT_FOUND = Str.template("User %s not found (id %d).");
+ *   ...
+ *   throw new IllegalStateException(NOT_FOUND.format(name, id));
+ *
+ * Gives the same result as String.format(), but the common specifiers are handled without
+ * String.format()'s regex parsing and Formatter: %s, %d, %x, %.Nf (and %f), plus %% and %n.
+ * Anything fancier (widths, flags, %1$s, %b, %e, ...) works too, by handing the
+ * whole pattern to String.format().
+ *
+ * Immutable and thread-safe.
+ */
+@ParametersAreNonnullByDefault
+public final class FormatTemplate {
+
+    private static final byte STRING = 0;
+    private static final byte DECIMAL = 1;
+    private static final byte HEX = 2;
+    private static final byte FLOAT = 3;
+
+    // What %f means with no precision.
+    private static final int DEFAULT_PRECISION = 6;
+
+    private final String pattern;
+
+    // Null if the pattern has something we don't handle, so it all goes to String.format().
+    // Otherwise, literals[i] comes before specifier i, and the last literal ends the pattern.
+    @Nullable
+    private final String[] literals;
+    @Nullable
+    private final byte[] kinds;
+    @Nullable
+    private final int[] precisions;
+
+    // The specifiers as written, for String.format() on a single arg we can't do ourselves.
+    @Nullable
+    private final String[] specs;
+
+    private final int literalLength;
+
+    // The last default locale we checked.
+    private static volatile LocaleCheck localeCheck = new LocaleCheck(Locale.ROOT);
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    private FormatTemplate(String pattern, @Nullable String[] literals, @Nullable byte[] kinds,
+        @Nullable int[] precisions, @Nullable String[] specs) {
+
+        this.pattern = pattern;
+        this.literals = literals;
+        this.kinds = kinds;
+        this.precisions = precisions;
+        this.specs = specs;
+
+        int len = 0;
+
+        if (literals != null) {
+            for (String literal : literals) {
+                len += literal.length();
+            }
+        }
+
+        this.literalLength = len;
+    }
+
+    /**
+     * Parse [pattern]. Same as {@link Str#template(String)}.
+     * A bad pattern doesn't fail here; format() fails the same way String.format() would.
+     */
+    public static FormatTemplate parse(String pattern) {
+
+        int count = 0;
+
+        // Count the specifiers, and check they're all ones we handle.
+        for (int i = pattern.indexOf('%'); i >= 0; i = pattern.indexOf('%', i)) {
+
+            int end = specEnd(pattern, i);
+
+            if (end < 0) {
+                return new FormatTemplate(pattern, null, null, null, null);
+            }
+
+            char conversion = pattern.charAt(end - 1);
+
+            if (conversion != '%' && conversion != 'n') {
+                count++;
+            }
+
+            i = end;
+        }
+
+        String[] literals = new String[count + 1];
+        byte[] kinds = new byte[count];
+        int[] precisions = new int[count];
+        String[] specs = new String[count];
+
+        StringBuilder literal = new StringBuilder();
+        int spec = 0;
+        int from = 0;
+
+        for (int i = pattern.indexOf('%'); i >= 0; i = pattern.indexOf('%', from)) {
+
+            literal.append(pattern, from, i);
+            int end = specEnd(pattern, i);
+            char conversion = pattern.charAt(end - 1);
+            from = end;
+
+            if (conversion == '%') {
+                literal.append('%');
+                continue;
+            } else if (conversion == 'n') {
+                literal.append(System.lineSeparator());
+                continue;
+            }
+
+            literals[spec] = literal.toString();
+            literal.setLength(0);
+            specs[spec] = pattern.substring(i, end);
+
+            if (conversion == 'f') {
+                kinds[spec] = FLOAT;
+                precisions[spec] = end - i == 2 ? DEFAULT_PRECISION : Integer.parseInt(pattern.substring(i + 2, end - 1));
+            } else {
+                kinds[spec] = conversion == 's' ? STRING : conversion == 'd' ? DECIMAL : HEX;
+            }
+
+            spec++;
+        }
+
+        literal.append(pattern, from, pattern.length());
+        literals[count] = literal.toString();
+
+        return new FormatTemplate(pattern, literals, kinds, precisions, specs);
+    }
+
+    /**
+     * If there's a specifier we handle at [start], return where it ends; otherwise -1.
+     * We handle: %s %d %x %f %.Nf %% %n
+     */
+    private static int specEnd(String pattern, int start) {
+
+        int i = start + 1;
+
+        if (i >= pattern.length()) {
+            return -1;
+        }
+
+        char c = pattern.charAt(i);
+
+        switch (c) {
+            case 's':
+            case 'd':
+            case 'x':
+            case 'f':
+            case '%':
+            case 'n':
+                return i + 1;
+            case '.':
+                break;
+            default:
+                return -1;
+        }
+
+        // %.Nf
+        int digitsStart = ++i;
+
+        // Two digits of precision is plenty; more goes to String.format().
+        while (i < pattern.length() && i - digitsStart < 2 && Character.isDigit(pattern.charAt(i))) {
+            i++;
+        }
+
+        boolean ok = i > digitsStart && i < pattern.length() && pattern.charAt(i) == 'f';
+        return ok ? i + 1 : -1;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // FORMAT:
+
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * Same as String.format(pattern, args).
+     */
+    public String format(Object... args) {
+
+        if (literals == null) {
+            return String.format(pattern, args);
+        }
+
+        return formatTo(new StringBuilder(literalLength + 16 * kinds.length), args).toString();
+    }
+
+    /**
+     * Append the formatted text to [bui], and return [bui].
+     */
+    public StringBuilder formatTo(StringBuilder bui, Object... args) {
+
+        if (literals == null) {
+            return bui.append(String.format(pattern, args));
+        }
+
+        // Check up front, so we don't leave half a message in [bui].
+        if (args != null && args.length < kinds.length) {
+            throw new MissingFormatArgumentException(specs[args.length]);
+        }
+
+        boolean plain = isPlainLocale();
+
+        for (int i = 0; i < kinds.length; i++) {
+
+            bui.append(literals[i]);
+
+            // Same as String.format(): a null array formats as all nulls.
+            Object arg = args == null ? null : args[i];
+
+            if (!formatArg(bui, kinds[i], precisions[i], arg, plain)) {
+                // Not one we can do exactly like String.format() would.
+                bui.append(String.format(specs[i], arg));
+            }
+        }
+
+        return bui.append(literals[kinds.length]);
+    }
+
+    /**
+     * Append [arg] the way String.format() would, and return true; or return false if we can't.
+     */
+    private static boolean formatArg(StringBuilder bui, byte kind, int precision, @Nullable Object arg, boolean plain) {
+
+        if (arg == null) {
+            // %x and %f print null as "null" too.
+            bui.append("null");
+            return true;
+        }
+
+        switch (kind) {
+
+            case STRING:
+
+                if (arg instanceof Formattable) {
+                    return false;
+                }
+
+                bui.append(arg);
+                return true;
+
+            case DECIMAL:
+
+                if (!plain) {
+                    return false;
+                } else if (arg instanceof Integer || arg instanceof Short || arg instanceof Byte) {
+                    bui.append(((Number) arg).intValue());
+                    return true;
+                } else if (arg instanceof Long) {
+                    bui.append((long) (Long) arg);
+                    return true;
+                } else if (arg instanceof BigInteger) {
+                    bui.append(arg);
+                    return true;
+                }
+
+                return false;
+
+            case HEX:
+
+                // Negative bytes and shorts are printed as unsigned, like String.format().
+                if (arg instanceof Integer) {
+                    bui.append(Integer.toHexString((Integer) arg));
+                    return true;
+                } else if (arg instanceof Long) {
+                    bui.append(Long.toHexString((Long) arg));
+                    return true;
+                } else if (arg instanceof Short) {
+                    bui.append(Integer.toHexString((Short) arg & 0xffff));
+                    return true;
+                } else if (arg instanceof Byte) {
+                    bui.append(Integer.toHexString((Byte) arg & 0xff));
+                    return true;
+                }
+
+                return false;
+
+            default:
+
+                if (!plain) {
+                    return false;
+                }
+
+                // String.format() rounds the shortest decimal form of the value (same digits as toString()), half up.
+                String digits;
+
+                if (arg instanceof Double) {
+                    double val = (Double) arg;
+                    if (Double.isNaN(val) || Double.isInfinite(val) || val == 0 && 1 / val < 0) {
+                        return false;
+                    }
+                    digits = Double.toString(val);
+                } else if (arg instanceof Float) {
+                    float val = (Float) arg;
+                    if (Float.isNaN(val) || Float.isInfinite(val) || val == 0 && 1 / val < 0) {
+                        return false;
+                    }
+                    // String.format() widens floats to doubles first.
+                    digits = Double.toString(val);
+                } else {
+                    return false;
+                }
+
+                BigDecimal rounded = new BigDecimal(digits).setScale(precision, RoundingMode.HALF_UP);
+
+                // A negative value that rounds to zero keeps its sign, e.g. "-0.00".
+                if (rounded.signum() == 0 && digits.charAt(0) == '-') {
+                    bui.append('-');
+                }
+
+                bui.append(rounded.toPlainString());
+                return true;
+        }
+    }
+
+    /**
+     * Is the default format locale one where numbers come out as plain ASCII digits, '-' and '.'?
+     * Otherwise String.format() would localize them, so we let it.
+     */
+    private static boolean isPlainLocale() {
+
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        LocaleCheck check = localeCheck;
+
+        if (check.locale != locale) {
+            check = new LocaleCheck(locale);
+            localeCheck = check;
+        }
+
+        return check.plain;
+    }
+
+    private static final class LocaleCheck {
+
+        private final Locale locale;
+        private final boolean plain;
+
+        LocaleCheck(Locale locale) {
+
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+
+            this.locale = locale;
+            this.plain = symbols.getZeroDigit() == '0'
+                && symbols.getDecimalSeparator() == '.'
+                && symbols.getMinusSign() == '-';
+        }
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
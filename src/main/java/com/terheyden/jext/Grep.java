@@ -0,0 +1,432 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Search many files for a regex at once, like grep -r, spread over a thread pool:
+ *
+ *   CompiledRegex regex = RegexBuilder.regex("ERROR {word}").var("{word}", "\\w+").compile();
+ *
+ *   List<GrepMatch> errors;
+ *   try (Stream<GrepMatch> matches = new Grep(regex).glob("*.log").search(logDir)) {
+ *       errors = matches.collect(Collectors.toList());
+ *   }
+ *
+ * Each file is searched line by line by its own task, on the common ForkJoinPool by default.
+ * Matches come back as a Stream while the search is still running, through a bounded queue:
+ * if you read slowly, the searching slows down to match, so memory stays bounded.
+ * Matches from one file are in order; matches from different files are interleaved.
+ *
+ * Always close the Stream (e.g. with try-with-resources), especially when you stop reading early.
+ * Closing cancels the search.
+ *
+ * Files that can't be read are handled by onError(). Anything else that goes wrong during the search,
+ * like a filter or error handler that throws, stops the search and is rethrown by the Stream.
+ */
+@ParametersAreNonnullByDefault
+public final class Grep {
+
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    // Matches are handed over in batches, so the reader isn't woken up for every single one.
+    private static final int BATCH_SIZE = 64;
+
+    private final CompiledRegex regex;
+    private Executor executor = ForkJoinPool.commonPool();
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private Charset charset = StandardCharsets.UTF_8;
+    private Predicate<Path> fileFilter = path -> true;
+
+    // Null means fail the search on the first error.
+    @Nullable
+    private BiConsumer<Path, IOException> errorHandler;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    public Grep(CompiledRegex regex) {
+        this.regex = regex;
+    }
+
+    public Grep(RegexBuilder regex) {
+        this(regex.compile());
+    }
+
+    /**
+     * Run the searches on this executor instead of the common ForkJoinPool.
+     * On newer JDKs, a virtual-thread-per-task executor works well here too.
+     */
+    public Grep executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * About how many matches can wait to be read before the search pauses.
+     */
+    public Grep queueSize(int queueSize) {
+
+        if (queueSize < 1) {
+            throw new IllegalArgumentException("Queue size must be at least 1: " + queueSize);
+        }
+
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * How to decode the files. UTF-8 by default. Bytes that don't decode are replaced, so binary files don't fail.
+     */
+    public Grep charset(Charset charset) {
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Only search files that pass the filter. Applies to files found by walking directories.
+     */
+    public Grep filter(Predicate<Path> fileFilter) {
+        this.fileFilter = fileFilter;
+        return this;
+    }
+
+    /**
+     * Only search files whose names match the glob, e.g. "*.{log,txt}".
+     * Applies to files found by walking directories.
+     */
+    public Grep glob(String fileNameGlob) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + fileNameGlob);
+        return filter(path -> matcher.matches(path.getFileName()));
+    }
+
+    /**
+     * What to do when a file can't be read. By default, the search stops and the Stream
+     * throws an UncheckedIOException. With a handler, the search skips the file and carries on.
+     * If the handler itself throws, the search stops and the Stream rethrows it.
+     */
+    public Grep onError(BiConsumer<Path, IOException> errorHandler) {
+        this.errorHandler = errorHandler;
+        return this;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // SEARCH:
+
+    /**
+     * Search the files, and all files under the directories.
+     * The search starts right away, and the matches are streamed back as they're found.
+     */
+    public Stream<GrepMatch> search(Collection<Path> paths) {
+
+        Search search = new Search();
+        search.start(paths);
+
+        return StreamSupport
+            .stream(Spliterators.spliteratorUnknownSize(search, Spliterator.NONNULL), false)
+            .onClose(search::cancel);
+    }
+
+    public Stream<GrepMatch> search(Path... paths) {
+        return search(Arrays.asList(paths));
+    }
+
+    /**
+     * One run of the search, and the iterator over its matches.
+     */
+    private final class Search implements Iterator<GrepMatch> {
+
+        // Copies of the settings, so changing the Grep doesn't change a running search.
+        private final Executor searchExecutor = executor;
+        private final Predicate<Path> searchFilter = fileFilter;
+        private final Charset searchCharset = charset;
+        @Nullable
+        private final BiConsumer<Path, IOException> searchErrorHandler = errorHandler;
+
+        // Batches of matches, each from a single file.
+        private final BlockingQueue<List<GrepMatch>> queue =
+            new ArrayBlockingQueue<>(Math.max(1, queueSize / BATCH_SIZE));
+
+        // How many tasks are still running. Done when it's zero and the queue is empty.
+        private final AtomicInteger pending = new AtomicInteger();
+        // The first error that stopped the search.
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private volatile boolean cancelled;
+
+        // The batch we're reading from.
+        private Iterator<GrepMatch> batch = Collections.emptyIterator();
+
+        void start(Collection<Path> paths) {
+
+            // Count ourselves as a task, so the search can't look done until everything's been submitted.
+            pending.incrementAndGet();
+
+            try {
+                for (Path path : paths) {
+                    if (Files.isDirectory(path)) {
+                        submit(() -> walk(path));
+                    } else {
+                        submit(() -> searchFile(path));
+                    }
+                }
+            } finally {
+                pending.decrementAndGet();
+            }
+        }
+
+        private void submit(Runnable task) {
+
+            pending.incrementAndGet();
+
+            try {
+                searchExecutor.execute(() -> {
+                    try {
+                        task.run();
+                    } catch (Throwable t) {
+                        // Don't let the pool swallow it; the matches this task would've found are gone.
+                        fail(t);
+                    } finally {
+                        pending.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                pending.decrementAndGet();
+                throw e;
+            }
+        }
+
+        private void walk(Path dir) {
+
+            try (Stream<Path> files = Files.walk(dir)) {
+
+                Iterator<Path> iter = files.iterator();
+
+                while (!cancelled && iter.hasNext()) {
+
+                    Path file = iter.next();
+
+                    if (Files.isRegularFile(file) && searchFilter.test(file)) {
+                        submit(() -> searchFile(file));
+                    }
+                }
+
+            } catch (IOException e) {
+                fail(dir, e);
+            } catch (UncheckedIOException e) {
+                fail(dir, e.getCause());
+            }
+        }
+
+        private void searchFile(Path file) {
+
+            if (cancelled) {
+                return;
+            }
+
+            CharsetDecoder decoder = searchCharset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+            try (BufferedReader reader = new BufferedReader(
+                Channels.newReader(FileChannel.open(file, StandardOpenOption.READ), decoder, -1))) {
+
+                Matcher mat = regex.pattern().matcher("");
+                List<GrepMatch> batch = new ArrayList<>();
+                long lineNumber = 0;
+                String line;
+
+                while (!cancelled && (line = reader.readLine()) != null) {
+
+                    lineNumber++;
+                    mat.reset(regex.budgeted(line));
+
+                    try {
+                        while (mat.find()) {
+
+                            batch.add(new GrepMatch(regex, file, lineNumber, line, mat.toMatchResult()));
+
+                            if (batch.size() == BATCH_SIZE) {
+                                put(batch);
+                                batch = new ArrayList<>();
+                            }
+                        }
+                    } catch (MatchBudget.Exceeded e) {
+                        // Skip the line; the budget keeps count.
+                        regex.budget().recordAbort(e);
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    put(batch);
+                }
+
+            } catch (IOException e) {
+                fail(file, e);
+            } catch (UncheckedIOException e) {
+                fail(file, e.getCause());
+            }
+        }
+
+        private void fail(Path path, IOException e) {
+
+            if (searchErrorHandler != null) {
+                searchErrorHandler.accept(path, e);
+                return;
+            }
+
+            fail(e);
+        }
+
+        /**
+         * Stop the search; the Stream will throw this.
+         */
+        private void fail(Throwable t) {
+            if (error.compareAndSet(null, t)) {
+                cancel();
+            }
+        }
+
+        /**
+         * Wait for room in the queue, letting the pool add a thread while we block.
+         */
+        private void put(List<GrepMatch> matches) {
+
+            try {
+
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+                    private boolean done;
+
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        while (!done && !cancelled) {
+                            done = queue.offer(matches, 50, TimeUnit.MILLISECONDS);
+                        }
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        if (!done && !cancelled) {
+                            done = queue.offer(matches);
+                        }
+                        return done || cancelled;
+                    }
+                });
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            queue.clear();
+        }
+
+        @Override
+        public boolean hasNext() {
+
+            try {
+
+                while (!batch.hasNext()) {
+
+                    throwIfFailed();
+
+                    if (cancelled) {
+                        return false;
+                    }
+
+                    // Check if we're done before polling, so we can't miss the last few matches.
+                    boolean done = pending.get() == 0;
+                    List<GrepMatch> matches = done ? queue.poll() : queue.poll(50, TimeUnit.MILLISECONDS);
+
+                    if (matches != null) {
+                        batch = matches.iterator();
+                    } else if (done) {
+                        throwIfFailed();
+                        return false;
+                    }
+                }
+
+                return true;
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new CancellationException("Interrupted while waiting for grep matches.");
+            }
+        }
+
+        private void throwIfFailed() {
+
+            Throwable t = error.get();
+
+            if (t == null) {
+                return;
+            }
+
+            if (t instanceof IOException) {
+                throw new UncheckedIOException((IOException) t);
+            }
+
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+
+            throw new IllegalStateException("Grep search failed.", t);
+        }
+
+        @Override
+        public GrepMatch next() {
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            return batch.next();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.nio.file.Path;
+import java.util.regex.MatchResult;
+
+/**
+ * One regex match found by {@link Grep}: which file, which line, and where in the line.
+ * Immutable.
+ */
+@ParametersAreNonnullByDefault
+public final class GrepMatch {
+
+    private final CompiledRegex regex;
+    private final Path path;
+    private final long lineNumber;
+    private final String line;
+    private final MatchResult match;
+
+    GrepMatch(CompiledRegex regex, Path path, long lineNumber, String line, MatchResult match) {
+        this.regex = regex;
+        this.path = path;
+        this.lineNumber = lineNumber;
+        this.line = line;
+        this.match = match;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * The line number, starting from 1.
+     */
+    public long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * The whole line the match is in, without the line break.
+     */
+    public String line() {
+        return line;
+    }
+
+    /**
+     * Where the match starts in the line.
+     */
+    public int start() {
+        return match.start();
+    }
+
+    /**
+     * Where the match ends in the line (exclusive).
+     */
+    public int end() {
+        return match.end();
+    }
+
+    /**
+     * The whole match.
+     */
+    public String group() {
+        return match.group();
+    }
+
+    /**
+     * What group [group] captured, or null if it didn't.
+     *
+     * @throws IndexOutOfBoundsException if there's no such group
+     */
+    @Nullable
+    public String group(int group) {
+        return match.group(group);
+    }
+
+    /**
+     * What the named group captured, or null if it didn't or there's no such group.
+     */
+    @Nullable
+    public String group(String groupName) {
+        int group = regex.groupIndex(groupName);
+        return group < 0 ? null : match.group(group);
+    }
+
+    /**
+     * Like grep: path:line:text
+     */
+    @Override
+    public String toString() {
+        return path + ":" + lineNumber + ":" + line;
+    }
+}
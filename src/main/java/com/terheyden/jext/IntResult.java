@@ -0,0 +1,154 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link Result} holding an int, without boxing it.
+ * Fails and value-less Oks without a message are shared, so they don't allocate at all.
+ * Immutable and Serializable.
+ */
+@ParametersAreNonnullByDefault
+public final class IntResult extends PrimitiveResult {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final IntResult OK = new IntResult(Result.Status.Ok, false, 0, null, null);
+    private static final IntResult FAIL = new IntResult(Result.Status.Fail, false, 0, null, null);
+
+    private final int value;
+
+    private IntResult(Result.Status status, boolean hasValue, int value, @Nullable String msg, @Nullable Exception cause) {
+        super(status, hasValue, msg, cause);
+        this.value = value;
+    }
+
+    /**
+     * Deserialize into the shared instances too, so they stay the only ones.
+     */
+    private Object readResolve() {
+        return hasValue() || hasMsg() || hasCause() ? this : isOk() ? OK : FAIL;
+    }
+
+    public static IntResult ok(int resultVal, @Nullable String resultMsg) {
+        return new IntResult(Result.Status.Ok, true, resultVal, resultMsg, null);
+    }
+
+    public static IntResult ok(int resultVal) {
+        return new IntResult(Result.Status.Ok, true, resultVal, null, null);
+    }
+
+    public static IntResult ok() {
+        return OK;
+    }
+
+    public static IntResult fail(@Nullable String resultMsg) {
+        return resultMsg == null ? FAIL : new IntResult(Result.Status.Fail, false, 0, resultMsg, null);
+    }
+
+    public static IntResult fail() {
+        return FAIL;
+    }
+
+    /**
+     * A fail caused by [cause], with its message. A null cause gives a plain {@link #fail()}.
+     * Passing a literal null to fail() is ambiguous now; cast it to String or Exception.
+     */
+    public static IntResult fail(@Nullable Exception cause) {
+        return cause == null ? fail() : new IntResult(Result.Status.Fail, false, 0, cause.getMessage(), cause);
+    }
+
+    public static IntResult fail(@Nullable String resultMsg, @Nullable Exception cause) {
+        return cause == null ? fail(resultMsg) : new IntResult(Result.Status.Fail, false, 0, resultMsg, cause);
+    }
+
+    /**
+     * Unbox [result], keeping its message and cause. A null value comes out as no value.
+     *
+     * @throws IllegalArgumentException if the value isn't a whole number that fits in an int, e.g. 1.9
+     */
+    public static IntResult from(Result<? extends Number> result) {
+
+        Number num = result.getValue();
+
+        if (num == null && !result.hasMsg() && !result.hasCause()) {
+            return result.isOk() ? OK : FAIL;
+        }
+
+        Result.Status status = result.isOk() ? Result.Status.Ok : Result.Status.Fail;
+        return new IntResult(status, num != null, num == null ? 0 : toInt(num), result.getMsg(), result.getCause());
+    }
+
+    private static int toInt(Number num) {
+
+        long val = exactLong(num);
+
+        if ((int) val != val) {
+            throw new IllegalArgumentException("Not a whole number in range: " + num);
+        }
+
+        return (int) val;
+    }
+
+    /**
+     * Box this into a regular {@link Result}, keeping the message and cause.
+     */
+    public Result<Integer> toResult() {
+        return boxed(hasValue() ? (Integer) value : null);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // VALUE:
+
+    public int orElse(int defaultVal) {
+        return hasValue() ? value : defaultVal;
+    }
+
+    public int orElseGet(IntSupplier defaultVal) {
+        return hasValue() ? value : defaultVal.getAsInt();
+    }
+
+    /**
+     * Return the value, or throw a {@link Failure} with [throwMsg] (and our cause, if any).
+     */
+    public int getValueOrThrow(String throwMsg) throws Exception {
+        throwIfNoValue(throwMsg);
+        return value;
+    }
+
+    /**
+     * Return the value, or throw our cause. With no cause, throws a shared, stackless {@link Failure}.
+     */
+    public int getValueOrThrow() throws Exception {
+        throwIfNoValue();
+        return value;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one. Status, message, and cause are kept.
+     */
+    public IntResult map(IntUnaryOperator mapper) {
+        return hasValue() ? new IntResult(getStatus(), true, mapper.applyAsInt(value), getMsg(), getCause()) : this;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one, and box the answer into a {@link Result}.
+     */
+    public <T> Result<T> mapToObj(IntFunction<? extends T> mapper) {
+        return boxed(hasValue() ? mapper.apply(value) : null);
+    }
+
+    public IntStream resultStream() {
+        return hasValue() ? IntStream.of(value) : IntStream.empty();
+    }
+
+    @Override
+    String valueString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,143 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.function.LongFunction;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+
+/**
+ * A {@link Result} holding a long, without boxing it.
+ * Fails and value-less Oks without a message are shared, so they don't allocate at all.
+ * Immutable and Serializable.
+ */
+@ParametersAreNonnullByDefault
+public final class LongResult extends PrimitiveResult {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final LongResult OK = new LongResult(Result.Status.Ok, false, 0, null, null);
+    private static final LongResult FAIL = new LongResult(Result.Status.Fail, false, 0, null, null);
+
+    private final long value;
+
+    private LongResult(Result.Status status, boolean hasValue, long value, @Nullable String msg, @Nullable Exception cause) {
+        super(status, hasValue, msg, cause);
+        this.value = value;
+    }
+
+    /**
+     * Deserialize into the shared instances too, so they stay the only ones.
+     */
+    private Object readResolve() {
+        return hasValue() || hasMsg() || hasCause() ? this : isOk() ? OK : FAIL;
+    }
+
+    public static LongResult ok(long resultVal, @Nullable String resultMsg) {
+        return new LongResult(Result.Status.Ok, true, resultVal, resultMsg, null);
+    }
+
+    public static LongResult ok(long resultVal) {
+        return new LongResult(Result.Status.Ok, true, resultVal, null, null);
+    }
+
+    public static LongResult ok() {
+        return OK;
+    }
+
+    public static LongResult fail(@Nullable String resultMsg) {
+        return resultMsg == null ? FAIL : new LongResult(Result.Status.Fail, false, 0, resultMsg, null);
+    }
+
+    public static LongResult fail() {
+        return FAIL;
+    }
+
+    /**
+     * A fail caused by [cause], with its message. A null cause gives a plain {@link #fail()}.
+     * Passing a literal null to fail() is ambiguous now; cast it to String or Exception.
+     */
+    public static LongResult fail(@Nullable Exception cause) {
+        return cause == null ? fail() : new LongResult(Result.Status.Fail, false, 0, cause.getMessage(), cause);
+    }
+
+    public static LongResult fail(@Nullable String resultMsg, @Nullable Exception cause) {
+        return cause == null ? fail(resultMsg) : new LongResult(Result.Status.Fail, false, 0, resultMsg, cause);
+    }
+
+    /**
+     * Unbox [result], keeping its message and cause. A null value comes out as no value.
+     *
+     * @throws IllegalArgumentException if the value isn't a whole number that fits in a long, e.g. 1.9
+     */
+    public static LongResult from(Result<? extends Number> result) {
+
+        Number num = result.getValue();
+
+        if (num == null && !result.hasMsg() && !result.hasCause()) {
+            return result.isOk() ? OK : FAIL;
+        }
+
+        Result.Status status = result.isOk() ? Result.Status.Ok : Result.Status.Fail;
+        return new LongResult(status, num != null, num == null ? 0 : exactLong(num), result.getMsg(), result.getCause());
+    }
+
+    /**
+     * Box this into a regular {@link Result}, keeping the message and cause.
+     */
+    public Result<Long> toResult() {
+        return boxed(hasValue() ? (Long) value : null);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // VALUE:
+
+    public long orElse(long defaultVal) {
+        return hasValue() ? value : defaultVal;
+    }
+
+    public long orElseGet(LongSupplier defaultVal) {
+        return hasValue() ? value : defaultVal.getAsLong();
+    }
+
+    /**
+     * Return the value, or throw a {@link Failure} with [throwMsg] (and our cause, if any).
+     */
+    public long getValueOrThrow(String throwMsg) throws Exception {
+        throwIfNoValue(throwMsg);
+        return value;
+    }
+
+    /**
+     * Return the value, or throw our cause. With no cause, throws a shared, stackless {@link Failure}.
+     */
+    public long getValueOrThrow() throws Exception {
+        throwIfNoValue();
+        return value;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one. Status, message, and cause are kept.
+     */
+    public LongResult map(LongUnaryOperator mapper) {
+        return hasValue() ? new LongResult(getStatus(), true, mapper.applyAsLong(value), getMsg(), getCause()) : this;
+    }
+
+    /**
+     * Apply [mapper] to the value, if there is one, and box the answer into a {@link Result}.
+     */
+    public <T> Result<T> mapToObj(LongFunction<? extends T> mapper) {
+        return boxed(hasValue() ? mapper.apply(value) : null);
+    }
+
+    public LongStream resultStream() {
+        return hasValue() ? LongStream.of(value) : LongStream.empty();
+    }
+
+    @Override
+    String valueString() {
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,213 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A limit on how much work a single regex match may do, so a pattern that backtracks
+ * catastrophically on hostile input fails fast instead of pinning a core:
+ *
+ *   CompiledRegex regex = RegexBuilder.regex("* login * failed *")
+ *       .wildcards()
+ *       .compile(MatchBudget.of(1_000_000, 50, TimeUnit.MILLISECONDS));
+ *
+ *   Result<Boolean> res = regex.tryMatches(untrustedText);    // Fails if the budget runs out.
+ *
+ * The budget is enforced by handing the regex engine a wrapped CharSequence that counts
+ * every char it reads. A step is one char read, so backtracking costs steps too.
+ * The clock and the thread's interrupt flag are checked every {@link #CHECK_INTERVAL} steps.
+ *
+ * Immutable and thread-safe. Keeps counts of how often, and why, matches were aborted.
+ */
+@ParametersAreNonnullByDefault
+public final class MatchBudget {
+
+    /**
+     * How many steps between checks of the clock and interrupt flag. Must be a power of 2.
+     */
+    public static final int CHECK_INTERVAL = 1024;
+
+    private static final long UNLIMITED = Long.MAX_VALUE;
+
+    // Stackless and shared, since they're thrown per match and only ever caught by us.
+    private static final Exceeded STEPS_EXCEEDED = new Exceeded("Match aborted: step budget exceeded.");
+    private static final Exceeded TIMED_OUT = new Exceeded("Match aborted: timed out.");
+    private static final Exceeded INTERRUPTED = new Exceeded("Match aborted: thread interrupted.");
+
+    private final long maxSteps;
+    private final long timeoutNanos;
+
+    private final LongAdder stepAborts = new LongAdder();
+    private final LongAdder timeoutAborts = new LongAdder();
+    private final LongAdder interruptAborts = new LongAdder();
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    private MatchBudget(long maxSteps, long timeoutNanos) {
+
+        if (maxSteps < 1 || timeoutNanos < 1) {
+            throw new IllegalArgumentException(String.format(
+                "Match budget must be positive: steps=%d, timeoutNanos=%d", maxSteps, timeoutNanos));
+        }
+
+        this.maxSteps = maxSteps;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Abort any match that reads more than [maxSteps] chars, or runs longer than [timeout].
+     */
+    public static MatchBudget of(long maxSteps, long timeout, TimeUnit unit) {
+        return new MatchBudget(maxSteps, unit.toNanos(timeout));
+    }
+
+    /**
+     * Abort any match that reads more than [maxSteps] chars.
+     */
+    public static MatchBudget steps(long maxSteps) {
+        return new MatchBudget(maxSteps, UNLIMITED);
+    }
+
+    /**
+     * Abort any match that runs longer than [timeout].
+     */
+    public static MatchBudget timeout(long timeout, TimeUnit unit) {
+        return new MatchBudget(UNLIMITED, unit.toNanos(timeout));
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // INFO:
+
+    public long maxSteps() {
+        return maxSteps;
+    }
+
+    public long timeout(TimeUnit unit) {
+        return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * How many matches ran out of budget, for any reason.
+     */
+    public long abortCount() {
+        return stepAborts.sum() + timeoutAborts.sum() + interruptAborts.sum();
+    }
+
+    public long stepAborts() {
+        return stepAborts.sum();
+    }
+
+    public long timeoutAborts() {
+        return timeoutAborts.sum();
+    }
+
+    public long interruptAborts() {
+        return interruptAborts.sum();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // ENFORCE:
+
+    /**
+     * Wrap the text for a single match. The clock starts now.
+     */
+    CharSequence wrap(CharSequence text) {
+        return new BudgetedText(text, System.nanoTime());
+    }
+
+    /**
+     * Count the abort and return the matching message.
+     */
+    String recordAbort(Exceeded e) {
+
+        if (e == STEPS_EXCEEDED) {
+            stepAborts.increment();
+        } else if (e == TIMED_OUT) {
+            timeoutAborts.increment();
+        } else {
+            interruptAborts.increment();
+        }
+
+        return e.getMessage();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MatchBudget[maxSteps=%s, timeout=%s, aborts=%d]",
+            maxSteps == UNLIMITED ? "unlimited" : maxSteps,
+            timeoutNanos == UNLIMITED ? "unlimited" : TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms",
+            abortCount());
+    }
+
+    /**
+     * Thrown out of the regex engine when a match runs out of budget.
+     */
+    static final class Exceeded extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        private Exceeded(String msg) {
+            // No stack trace or suppressed exceptions; it's just a signal.
+            super(msg, null, false, false);
+        }
+    }
+
+    /**
+     * The text, as seen by the regex engine. Counts each char read.
+     */
+    private final class BudgetedText implements CharSequence {
+
+        private final CharSequence text;
+        private final long startNanos;
+        private long steps;
+
+        BudgetedText(CharSequence text, long startNanos) {
+            this.text = text;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public char charAt(int index) {
+
+            if (++steps > maxSteps) {
+                throw STEPS_EXCEEDED;
+            }
+
+            if ((steps & (CHECK_INTERVAL - 1)) == 0) {
+                checkClock();
+            }
+
+            return text.charAt(index);
+        }
+
+        private void checkClock() {
+
+            if (timeoutNanos != UNLIMITED && System.nanoTime() - startNanos > timeoutNanos) {
+                throw TIMED_OUT;
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                throw INTERRUPTED;
+            }
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        // Only used to pull out groups once the match is done, so no need to count these.
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,545 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A precompiled set of strings to search for, a.k.a. "needles".
+ * Answers containsAny / containsAll / findAll in a single pass over the text,
+ * no matter how many needles there are (Aho-Corasick).
+ *
+ * Immutable and thread-safe, so compile once and share:
+ *
+ *   private static final NeedleSet BLOCKED = Val.compileNeedles(loadBlocklist());
+ *   ...
+ *   if (BLOCKED.containsAny(header)) { ... }
+ *
+ * It's also a read-only {@link Collection}, so passing it to
+ * {@link Val#containsAny(String, Collection)} or {@link Val#containsAll(String, Collection)}
+ * uses the single-pass search automatically.
+ *
+ * Compile with {@link #ofIgnoreCase(Collection)} to search ignoring case; needles are
+ * case-folded once up front, and the text is folded a char at a time as it's scanned.
+ *
+ * Null and empty needles behave like they do in {@link Val#contains(String, String)}:
+ * they're found in any non-null text. Except when ignoring case, where null needles are skipped,
+ * same as {@link Val#containsAnyIgnoreCase(String, Collection)}.
+ */
+@ParametersAreNonnullByDefault
+public final class NeedleSet extends AbstractCollection<String> {
+
+    private static final int NONE = -1;
+    private static final int ROOT = 0;
+    private static final int ASCII = 128;
+
+    // Largest dense transition table we'll build, in ints (16 MB). Bigger needle sets use the sparse trie.
+    private static final int MAX_DENSE_TABLE = 4 * 1024 * 1024;
+
+    // All distinct needles, in the order given.
+    private final List<String> needles;
+
+    // True if there's a null or empty needle, which matches any text.
+    private final boolean hasEmptyNeedle;
+
+    // True if needles and text are compared via Str.foldCase().
+    private final boolean ignoreCase;
+
+    // Non-empty needles, indexed by needle id.
+    private final String[] ids;
+
+    // The automaton, flattened into arrays, indexed by state (trie node).
+    // Edges of state s are edgeChars / edgeTargets[edgeStart[s] .. edgeStart[s + 1]), sorted by char.
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final int[] rootAscii;      // Dense root edges for ASCII, the most common first step.
+    private final int[] fail;           // Longest proper suffix that is also a trie node.
+    private final int[] needleAt;       // Needle id that ends exactly at this state, or NONE.
+    private final int[] outLink;        // This state if it ends a needle, else dictLink.
+    private final int[] dictLink;       // Nearest fail-ancestor that ends a needle, or NONE.
+
+    // Dense DFA: delta[state * charClasses + charClass] is the next state, fail links already applied.
+    // Chars are mapped to small class numbers first. Class 0 is every char not in any needle,
+    // which always leads back to the root. Null if the table would be too big.
+    private final int[] delta;
+    private final int charClasses;
+
+    // Two-level char -> class map: classBlock[c >>> 8] is the offset of c's 256-entry block
+    // in classTable, or NONE if no needle uses any char in that block.
+    private final int[] classBlock;
+    private final int[] classTable;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    private NeedleSet(Collection<String> findStrs, boolean ignoreCase) {
+
+        this.ignoreCase = ignoreCase;
+        needles = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(findStrs)));
+
+        // Needles that only differ by case are the same needle when ignoring case. First one wins.
+        boolean emptyNeedle = false;
+        Map<String, String> nonEmpty = new LinkedHashMap<>();
+
+        for (String needle : needles) {
+            if (needle == null && ignoreCase) {
+                // The IgnoreCase methods skip null needles, rather than treating them like empty ones.
+                continue;
+            } else if (needle == null || needle.isEmpty()) {
+                emptyNeedle = true;
+            } else {
+                nonEmpty.putIfAbsent(fold(needle), needle);
+            }
+        }
+
+        hasEmptyNeedle = emptyNeedle;
+        ids = nonEmpty.values().toArray(new String[0]);
+        String[] keys = nonEmpty.keySet().toArray(new String[0]);
+
+        // Build the trie. TreeMaps keep each node's edges sorted for the flattened binary search.
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> ends = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        ends.add(NONE);
+
+        for (int id = 0; id < ids.length; id++) {
+
+            int state = ROOT;
+
+            for (int i = 0; i < keys[id].length(); i++) {
+
+                char c = keys[id].charAt(i);
+                Integer next = trie.get(state).get(c);
+
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    ends.add(NONE);
+                    trie.get(state).put(c, next);
+                }
+
+                state = next;
+            }
+
+            ends.set(state, id);
+        }
+
+        int stateCount = trie.size();
+        int edgeCount = stateCount - 1;
+
+        edgeStart = new int[stateCount + 1];
+        edgeChars = new char[edgeCount];
+        edgeTargets = new int[edgeCount];
+        rootAscii = new int[ASCII];
+        fail = new int[stateCount];
+        needleAt = new int[stateCount];
+        outLink = new int[stateCount];
+        dictLink = new int[stateCount];
+
+        Arrays.fill(rootAscii, NONE);
+
+        int edge = 0;
+
+        for (int state = 0; state < stateCount; state++) {
+
+            edgeStart[state] = edge;
+            needleAt[state] = ends.get(state);
+
+            for (Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                edgeChars[edge] = entry.getKey();
+                edgeTargets[edge] = entry.getValue();
+                edge++;
+            }
+        }
+
+        edgeStart[stateCount] = edge;
+
+        for (int e = edgeStart[ROOT]; e < edgeStart[ROOT + 1]; e++) {
+            if (edgeChars[e] < ASCII) {
+                rootAscii[edgeChars[e]] = edgeTargets[e];
+            }
+        }
+
+        // Breadth-first, so every state's fail link is ready before its children need it.
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        fail[ROOT] = ROOT;
+        outLink[ROOT] = NONE;
+        dictLink[ROOT] = NONE;
+
+        while (!queue.isEmpty()) {
+
+            int state = queue.poll();
+
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+
+                int child = edgeTargets[e];
+                fail[child] = state == ROOT ? ROOT : next(fail[state], edgeChars[e]);
+
+                int suffix = fail[child];
+                dictLink[child] = needleAt[suffix] != NONE ? suffix : dictLink[suffix];
+                outLink[child] = needleAt[child] != NONE ? child : dictLink[child];
+
+                queue.add(child);
+            }
+        }
+
+        // Compact the alphabet to just the chars used in needles.
+        classBlock = new int[256];
+        Arrays.fill(classBlock, NONE);
+
+        int blocks = 0;
+        for (char c : edgeChars) {
+            if (classBlock[c >>> 8] == NONE) {
+                classBlock[c >>> 8] = 256 * blocks++;
+            }
+        }
+
+        classTable = new int[256 * blocks];
+        int classes = 1;
+
+        for (char c : edgeChars) {
+            int ind = classBlock[c >>> 8] + (c & 0xFF);
+            if (classTable[ind] == 0) {
+                classTable[ind] = classes++;
+            }
+        }
+
+        charClasses = classes;
+        delta = (long) stateCount * charClasses <= MAX_DENSE_TABLE ? buildDelta(stateCount) : null;
+    }
+
+    /**
+     * Fill in the dense DFA, breadth-first, so each state can copy its fail state's already-finished row.
+     */
+    private int[] buildDelta(int stateCount) {
+
+        int[] table = new int[stateCount * charClasses];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+
+        while (!queue.isEmpty()) {
+
+            int state = queue.poll();
+            int row = state * charClasses;
+
+            if (state != ROOT) {
+                System.arraycopy(table, fail[state] * charClasses, table, row, charClasses);
+            }
+
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                table[row + charClass(edgeChars[e])] = edgeTargets[e];
+                queue.add(edgeTargets[e]);
+            }
+        }
+
+        return table;
+    }
+
+    /**
+     * Compile needles for fast searching. See {@link Val#compileNeedles(Collection)}.
+     */
+    public static NeedleSet of(Collection<String> findStrs) {
+        return new NeedleSet(findStrs, false);
+    }
+
+    /**
+     * Compile needles for fast searching. See {@link Val#compileNeedles(String...)}.
+     */
+    public static NeedleSet of(String... findStrs) {
+        return new NeedleSet(Arrays.asList(findStrs), false);
+    }
+
+    /**
+     * Compile needles for fast searching, ignoring case. See {@link Val#compileNeedlesIgnoreCase(Collection)}.
+     */
+    public static NeedleSet ofIgnoreCase(Collection<String> findStrs) {
+        return new NeedleSet(findStrs, true);
+    }
+
+    /**
+     * Compile needles for fast searching, ignoring case. See {@link Val#compileNeedlesIgnoreCase(String...)}.
+     */
+    public static NeedleSet ofIgnoreCase(String... findStrs) {
+        return new NeedleSet(Arrays.asList(findStrs), true);
+    }
+
+    /**
+     * Returns true if this set was compiled to ignore case.
+     */
+    public boolean isIgnoreCase() {
+        return ignoreCase;
+    }
+
+    private String fold(String needle) {
+
+        if (!ignoreCase) {
+            return needle;
+        }
+
+        char[] chars = needle.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Str.foldCase(chars[i]);
+        }
+
+        return new String(chars);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // AUTOMATON:
+
+    /**
+     * Returns the trie edge from [state] on [c], or NONE.
+     */
+    private int edge(int state, char c) {
+
+        if (state == ROOT && c < ASCII) {
+            return rootAscii[c];
+        }
+
+        int lo = edgeStart[state];
+        int hi = edgeStart[state + 1] - 1;
+
+        while (lo <= hi) {
+
+            int mid = (lo + hi) >>> 1;
+            char midChar = edgeChars[mid];
+
+            if (midChar < c) {
+                lo = mid + 1;
+            } else if (midChar > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+
+        return NONE;
+    }
+
+    /**
+     * Advance the automaton by one char, following fail links until an edge matches.
+     */
+    private int next(int state, char c) {
+
+        while (true) {
+
+            int target = edge(state, c);
+
+            if (target != NONE) {
+                return target;
+            }
+
+            if (state == ROOT) {
+                return ROOT;
+            }
+
+            state = fail[state];
+        }
+    }
+
+    /**
+     * Map a char to its compacted alphabet class. Class 0 means it isn't in any needle.
+     */
+    private int charClass(char c) {
+        int block = classBlock[c >>> 8];
+        return block == NONE ? 0 : classTable[block + (c & 0xFF)];
+    }
+
+    /**
+     * Advance the automaton by one char of the text, using the dense table when we have one.
+     */
+    private int step(int state, char c) {
+
+        if (ignoreCase) {
+            c = Str.foldCase(c);
+        }
+
+        return delta != null ? delta[state * charClasses + charClass(c)] : next(state, c);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // SEARCH:
+
+    /**
+     * Returns true if [text] contains any of the needles.
+     * Returns false if [text] is null or there are no needles.
+     */
+    public boolean containsAny(@Nullable String text) {
+
+        if (text == null || needles.isEmpty()) {
+            return false;
+        }
+
+        if (hasEmptyNeedle) {
+            return true;
+        }
+
+        int state = ROOT;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            state = step(state, text.charAt(i));
+
+            if (outLink[state] != NONE) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns true if [text] contains every one of the needles.
+     * Returns false if [text] is null or there are no needles.
+     */
+    public boolean containsAll(@Nullable String text) {
+
+        if (text == null || needles.isEmpty()) {
+            return false;
+        }
+
+        int remaining = ids.length;
+
+        if (remaining == 0) {
+            return true;
+        }
+
+        // Track which needles we've seen in a bitmask. Only sets with over 64 needles need an array.
+        long seenMask = 0L;
+        long[] seen = ids.length > 64 ? new long[(ids.length + 63) >>> 6] : null;
+        int state = ROOT;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            state = step(state, text.charAt(i));
+
+            for (int out = outLink[state]; out != NONE; out = dictLink[out]) {
+
+                int id = needleAt[out];
+                long bit = 1L << id;
+
+                if (seen == null) {
+
+                    if ((seenMask & bit) != 0) {
+                        continue;
+                    }
+
+                    seenMask |= bit;
+
+                } else {
+
+                    if ((seen[id >>> 6] & bit) != 0) {
+                        continue;
+                    }
+
+                    seen[id >>> 6] |= bit;
+                }
+
+                if (--remaining == 0) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the needles found in [text], in the order they were found.
+     * Null and empty needles, if any, come first. When ignoring case,
+     * needles that only differ by case are reported once, as the first one given.
+     * Returns an empty set if [text] is null.
+     */
+    public Set<String> findAll(@Nullable String text) {
+
+        if (text == null || needles.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> found = new LinkedHashSet<>();
+
+        if (hasEmptyNeedle) {
+            for (String needle : needles) {
+                if (needle == null || needle.isEmpty()) {
+                    found.add(needle);
+                }
+            }
+        }
+
+        int state = ROOT;
+
+        for (int i = 0; i < text.length() && found.size() < needles.size(); i++) {
+
+            state = step(state, text.charAt(i));
+
+            for (int out = outLink[state]; out != NONE; out = dictLink[out]) {
+                found.add(ids[needleAt[out]]);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Callback for {@link #forEachMatch(CharSequence, MatchVisitor)}.
+     */
+    @FunctionalInterface
+    interface MatchVisitor {
+
+        /**
+         * @param id  which needle: its index among the distinct non-empty needles, in the order given
+         * @param end the index in the text just past the needle
+         * @return true to keep going, false to stop
+         */
+        boolean visit(int id, int end);
+    }
+
+    /**
+     * Report every occurrence of every non-empty needle in [text] to [visitor], until it says stop.
+     */
+    void forEachMatch(CharSequence text, MatchVisitor visitor) {
+
+        int state = ROOT;
+
+        for (int i = 0; i < text.length(); i++) {
+
+            state = step(state, text.charAt(i));
+
+            for (int out = outLink[state]; out != NONE; out = dictLink[out]) {
+                if (!visitor.visit(needleAt[out], i + 1)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // COLLECTION:
+
+    @Override
+    public Iterator<String> iterator() {
+        return needles.iterator();
+    }
+
+    @Override
+    public int size() {
+        return needles.size();
+    }
+}
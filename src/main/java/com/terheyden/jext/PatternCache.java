@@ -0,0 +1,175 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded, thread-safe cache of compiled Patterns, keyed by regex and flags.
+ * Compiling is the expensive part of using a regex, so compile each one once:
+ *
+ *   PatternCache.global().compile("\\s*name\\s*=", Pattern.CASE_INSENSITIVE);
+ *   RegexBuilder.regex("name = Cora").simpleSpaces().cached().matches(text);
+ *
+ * Reads never lock. When the cache is full, the least recently used patterns are evicted
+ * first, using the CLOCK approximation of LRU: a hit just marks the pattern as used,
+ * and the eviction sweep gives each marked pattern a second chance.
+ */
+@ParametersAreNonnullByDefault
+public final class PatternCache {
+
+    public static final int DEFAULT_MAX_SIZE = 512;
+
+    private static final PatternCache GLOBAL = new PatternCache(DEFAULT_MAX_SIZE);
+
+    private final ClockCache<Key, Entry> cache;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * @param maxSize the most patterns to keep; must be at least 1
+     */
+    public PatternCache(int maxSize) {
+        this.cache = new ClockCache<>(maxSize);
+    }
+
+    /**
+     * The process-wide cache, holding up to {@link #DEFAULT_MAX_SIZE} patterns.
+     */
+    public static PatternCache global() {
+        return GLOBAL;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // COMPILE:
+
+    /**
+     * Return the compiled [regex], compiling and caching it if needed.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the regex is invalid; nothing is cached
+     */
+    public Pattern compile(String regex, int flags) {
+
+        Key key = new Key(regex, flags);
+        Entry entry = cache.get(key);
+
+        if (entry != null) {
+            cache.hit(entry);
+            return entry.pattern;
+        }
+
+        // Only one thread compiles a given regex. (Check get() first, since computeIfAbsent() locks even on a hit.)
+        boolean[] added = { false };
+
+        entry = cache.entries().computeIfAbsent(key, newKey -> {
+            added[0] = true;
+            return new Entry(Pattern.compile(newKey.regex, newKey.flags));
+        });
+
+        if (!added[0]) {
+            // Another thread beat us to it.
+            cache.hit(entry);
+            return entry.pattern;
+        }
+
+        cache.miss();
+        cache.added(key);
+        return entry.pattern;
+    }
+
+    public Pattern compile(String regex) {
+        return compile(regex, 0);
+    }
+
+    /**
+     * Return the cached pattern, if any, without compiling it or counting a hit or miss.
+     */
+    @Nullable
+    public Pattern getIfPresent(String regex, int flags) {
+        Entry entry = cache.get(new Key(regex, flags));
+        return entry == null ? null : entry.pattern;
+    }
+
+    /**
+     * Remove every cached pattern. The stats are kept.
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STATS:
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int maxSize() {
+        return cache.maxSize();
+    }
+
+    /**
+     * A snapshot of this cache's hit / miss / eviction counts.
+     */
+    public Stats stats() {
+        return new Stats(cache);
+    }
+
+    /**
+     * Zero out the hit / miss / eviction counts.
+     */
+    public void resetStats() {
+        cache.resetStats();
+    }
+
+    /**
+     * Counts for a {@link PatternCache}, as of when {@link PatternCache#stats()} was called.
+     */
+    public static final class Stats extends CacheStats {
+
+        private Stats(ClockCache<?, ?> cache) {
+            super("PatternCache", cache);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // INTERNAL:
+
+    private static final class Key {
+
+        private final String regex;
+        private final int flags;
+
+        Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            Key other = (Key) obj;
+            return flags == other.flags && regex.equals(other.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }
+
+    private static final class Entry extends ClockCache.Entry {
+
+        private final Pattern pattern;
+
+        Entry(Pattern pattern) {
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.Serializable;
+
+/**
+ * What {@link IntResult}, {@link LongResult}, and {@link DoubleResult} have in common: everything but the value.
+ */
+@ParametersAreNonnullByDefault
+abstract class PrimitiveResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Result.Status status;
+    private final boolean hasValue;
+    @Nullable
+    private final String msg;
+    @Nullable
+    private final Exception cause;
+
+    PrimitiveResult(Result.Status status, boolean hasValue, @Nullable String msg, @Nullable Exception cause) {
+        this.status = status;
+        this.hasValue = hasValue;
+        this.msg = msg;
+        this.cause = cause;
+    }
+
+    /**
+     * The long in [num], or an IllegalArgumentException if converting would truncate or overflow it,
+     * e.g. 1.9 or 1e30.
+     */
+    static long exactLong(Number num) {
+
+        long val = num.longValue();
+
+        if (num instanceof Long || num instanceof Integer || num instanceof Short || num instanceof Byte) {
+            return val;
+        }
+
+        if (num.doubleValue() != (double) val) {
+            throw new IllegalArgumentException("Not a whole number in range: " + num);
+        }
+
+        return val;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STATUS / MSG:
+
+    public boolean isOk() {
+        return status == Result.Status.Ok;
+    }
+
+    public boolean isFail() {
+        return status == Result.Status.Fail;
+    }
+
+    public Result.Status getStatus() {
+        return status;
+    }
+
+    public boolean hasMsg() {
+        return msg != null;
+    }
+
+    public @Nullable String getMsg() {
+        return msg;
+    }
+
+    public String getMsgOrDefault(String defaultMsg) {
+        return msg == null ? defaultMsg : msg;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // VALUE:
+
+    public boolean hasValue() {
+        return hasValue;
+    }
+
+    /**
+     * The exception that caused this fail, if there was one.
+     */
+    public @Nullable Exception getCause() {
+        return cause;
+    }
+
+    public boolean hasCause() {
+        return cause != null;
+    }
+
+    /**
+     * Throw a {@link Failure} with [throwMsg] (and our cause, if any) if there's no value.
+     */
+    void throwIfNoValue(String throwMsg) {
+        if (!hasValue) {
+            throw Failure.of(throwMsg, cause);
+        }
+    }
+
+    /**
+     * Throw our cause if there's no value, or a shared, stackless {@link Failure} if there's no cause either.
+     */
+    void throwIfNoValue() throws Exception {
+        if (!hasValue) {
+            throw cause != null ? cause : Result.NO_VALUE;
+        }
+    }
+
+    /**
+     * A regular {@link Result} with our status, message, and cause, holding [val].
+     */
+    <T> Result<T> boxed(@Nullable T val) {
+        return isOk() ? Result.ok(val, msg) : Result.<T>fail(msg, cause).withValue(val);
+    }
+
+    abstract String valueString();
+
+    @Override
+    public String toString() {
+        return status + (hasValue ? " " + valueString() : "") + (msg != null ? ": " + msg : "");
+    }
+}
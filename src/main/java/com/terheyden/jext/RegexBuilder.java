@@ -2,6 +2,11 @@ package com.terheyden.jext;
 
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,6 +50,9 @@ public final class RegexBuilder {
     private int flags;
     private boolean autoCaptureVars;
 
+    // Null unless cached() was called.
+    private PatternCache cache;
+
     // Vars are transitive, defined in order, so use a stack.
     // ArrayDeques are the fastest stack objs.
     private ArrayDeque<SimpleEntry<String, String>> _vars;
@@ -88,6 +96,22 @@ public final class RegexBuilder {
         return this;
     }
 
+    /**
+     * Reuse the compiled Pattern from the process-wide {@link PatternCache}, instead of compiling every time.
+     * Handy when the same regex is built over and over, e.g. in a loop.
+     */
+    public RegexBuilder cached() {
+        return cached(PatternCache.global());
+    }
+
+    /**
+     * Reuse the compiled Pattern from the specified cache, instead of compiling every time.
+     */
+    public RegexBuilder cached(PatternCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////
     // TRANSFORM:
 
@@ -194,15 +218,24 @@ public final class RegexBuilder {
     }
 
     /**
-     * Define a variable. Vars can contain any symbols. Vars are also transitive.
+     * Define a variable. Vars can contain any symbols. Vars are also transitive,
+     * and can reference each other in any order, but not in a circle.
      * Ex: regbui.var("{word}", "[A-Za-z0-9._-]+").var("{email}", "{word}@{word}")...
      *
+     * If a var is defined twice, the latest definition wins.
+     * If var names overlap in the text, the longest one wins.
+     *
      * @param key       the var name
      * @param val       the var value, which must ultimately be a valid regex expression
      * @param groupName if specified, will surround the val in a named capture group
+     * @throws IllegalArgumentException if the var name is empty
      */
     public RegexBuilder var(String key, String val, String groupName) {
 
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Var name can't be empty.");
+        }
+
         if (_vars == null) {
             _vars = new ArrayDeque<>();
         }
@@ -225,53 +258,15 @@ public final class RegexBuilder {
 
     /**
      * Called right as we finish up, applies all the vars the user added.
+     * Leaves the builder untouched, so it can be built again.
      */
-    private void applyAllVars() {
+    private String applyAllVars(String str) {
 
         if (_vars == null || _vars.isEmpty()) {
-            return;
-        }
-
-        while (!_vars.isEmpty()) {
-
-            SimpleEntry<String, String> var = _vars.pop();
-            String varKey = var.getKey();
-            String varVal = var.getValue();
-
-            applyVar(varKey, varVal);
-        }
-    }
-
-    /**
-     * Apply a single var to our regex.
-     */
-    private void applyVar(String find, String replace) {
-
-        // We're not using replaceAll(), to avoid messing up special chars.
-        String str = regex;
-        StringBuilder bui = new StringBuilder();
-
-        int off = str.indexOf(find);
-
-        while (off > -1) {
-
-            boolean surroundWithParens =                        // See if we should automatically
-                autoCaptureVars &&                              // surround vars with parens.
-                (off == 0 || str.charAt(off - 1) != '(');
-
-            bui.append(str.substring(0, off));                  // Append anything before the match.
-            bui.append(surroundWithParens ? "(" : "");          // Optionally surround with parens.
-            bui.append(replace);                                // Append replace text.
-            bui.append(surroundWithParens ? ")" : "");          // Close parens.
-
-            str = str.substring(off + find.length());        // Move our test string past this last match.
-            off = str.indexOf(find);                         // Set up for next loop.
+            return str;
         }
 
-        // Add the last unmatched bit.
-        bui.append(str);
-
-        regex = bui.toString();
+        return new VarExpander(_vars, autoCaptureVars).expand(str);
     }
 
     // Ironically it's easiest to use a regex to find the words to bind.
@@ -336,18 +331,18 @@ public final class RegexBuilder {
     }
 
     /**
-     * Apply finishing touches to our regex.
+     * Apply finishing touches to our regex, and return the result.
      */
-    private void finish() {
-        applyAllVars();
+    private String finish() {
+        return applyAllVars(regex);
     }
 
     /**
      * Build our regex as a String and return it.
+     * Doesn't change the builder, so it's fine to build more than once.
      */
     public String buildString() {
-        finish();
-        return regex;
+        return finish();
     }
 
     // toString() is supposed to be idempotent (e.g. it's called by the debugger constantly).
@@ -359,9 +354,28 @@ public final class RegexBuilder {
 
     /**
      * Build the final regex into a Pattern and return it.
+     * If {@link #cached()} was called, the Pattern comes from the cache when possible.
      */
     public Pattern buildPattern() {
-        return Pattern.compile(buildString(), flags);
+        return cache == null
+            ? Pattern.compile(buildString(), flags)
+            : cache.compile(buildString(), flags);
+    }
+
+    /**
+     * Build the final regex into an immutable, thread-safe {@link CompiledRegex}.
+     * Build once, store it in a static field, and use it from any thread.
+     */
+    public CompiledRegex compile() {
+        return new CompiledRegex(buildPattern());
+    }
+
+    /**
+     * Build the final regex into a {@link CompiledRegex} that aborts any match that runs over [budget].
+     * Use this for untrusted text, especially with {@link #wildcards()}, which can backtrack a lot.
+     */
+    public CompiledRegex compile(MatchBudget budget) {
+        return new CompiledRegex(buildPattern(), budget);
     }
 
     /**
@@ -388,4 +402,164 @@ public final class RegexBuilder {
         regex = regex.replaceAll("\\*", "(.*)");
         return this;
     }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // VAR EXPANSION:
+
+    /**
+     * Expands vars in a single pass over the text, writing into one buffer.
+     * Each var's value is expanded once, the first time it's used, and reused after that.
+     */
+    private static final class VarExpander {
+
+        private static final byte UNRESOLVED = 0;
+        private static final byte RESOLVING = 1;
+        private static final byte RESOLVED = 2;
+
+        private final List<String> keys = new ArrayList<>();
+        private final List<String> vals = new ArrayList<>();
+        private final boolean autoCapture;
+
+        // A trie of the var names, and the first chars of each, to skip quickly past text that isn't a var.
+        private final TrieNode root = new TrieNode();
+        private final BitSet firstChars = new BitSet();
+
+        // Var names usually all start the same way, like {name}. If so, this is that char, else -1.
+        private final int sharedFirstChar;
+
+        private final String[] resolved;
+        private final byte[] state;
+
+        // The vars being resolved right now, to report a circular reference.
+        private final List<Integer> resolving = new ArrayList<>();
+
+        VarExpander(ArrayDeque<SimpleEntry<String, String>> vars, boolean autoCapture) {
+
+            this.autoCapture = autoCapture;
+
+            // The stack iterates latest first, so the latest definition of a var wins.
+            for (SimpleEntry<String, String> var : vars) {
+
+                TrieNode node = root;
+
+                for (int i = 0; i < var.getKey().length(); i++) {
+                    node = node.children.computeIfAbsent(var.getKey().charAt(i), c -> new TrieNode());
+                }
+
+                if (node.varId < 0) {
+                    node.varId = keys.size();
+                    keys.add(var.getKey());
+                    vals.add(var.getValue());
+                    firstChars.set(var.getKey().charAt(0));
+                }
+            }
+
+            resolved = new String[keys.size()];
+            state = new byte[keys.size()];
+            sharedFirstChar = firstChars.cardinality() == 1 ? firstChars.nextSetBit(0) : -1;
+        }
+
+        /**
+         * Return [text] with every var in it expanded. Text without any vars is returned as-is.
+         */
+        String expand(String text) {
+
+            // Only created once we find a var.
+            StringBuilder bui = null;
+            int len = text.length();
+            int copied = 0;
+            int i = 0;
+
+            while (i < len) {
+
+                // indexOf() is much faster than checking char by char.
+                if (sharedFirstChar >= 0) {
+
+                    i = text.indexOf(sharedFirstChar, i);
+
+                    if (i < 0) {
+                        break;
+                    }
+
+                } else if (!firstChars.get(text.charAt(i))) {
+                    i++;
+                    continue;
+                }
+
+                // Walk the trie as far as the text goes, remembering the longest var name seen.
+                int varId = -1;
+                int varEnd = -1;
+                TrieNode node = root;
+
+                for (int j = i; j < len && (node = node.children.get(text.charAt(j))) != null; j++) {
+                    if (node.varId >= 0) {
+                        varId = node.varId;
+                        varEnd = j + 1;
+                    }
+                }
+
+                if (varId < 0) {
+                    i++;
+                    continue;
+                }
+
+                // See if we should automatically surround vars with parens.
+                boolean surroundWithParens = autoCapture && (i == 0 || text.charAt(i - 1) != '(');
+
+                if (bui == null) {
+                    bui = new StringBuilder(len * 2);
+                }
+
+                bui.append(text, copied, i);
+                bui.append(surroundWithParens ? "(" : "");
+                bui.append(resolve(varId));
+                bui.append(surroundWithParens ? ")" : "");
+
+                i = varEnd;
+                copied = varEnd;
+            }
+
+            if (bui == null) {
+                return text;
+            }
+
+            // Add the last unmatched bit.
+            return bui.append(text, copied, len).toString();
+        }
+
+        /**
+         * Return the fully-expanded value of the var.
+         */
+        private String resolve(int varId) {
+
+            if (state[varId] == RESOLVED) {
+                return resolved[varId];
+            }
+
+            if (state[varId] == RESOLVING) {
+
+                StringBuilder cycle = new StringBuilder();
+
+                for (int id : resolving.subList(resolving.indexOf(varId), resolving.size())) {
+                    cycle.append(keys.get(id)).append(" -> ");
+                }
+
+                throw new IllegalArgumentException("Circular var reference: " + cycle + keys.get(varId));
+            }
+
+            state[varId] = RESOLVING;
+            resolving.add(varId);
+
+            resolved[varId] = expand(vals.get(varId));
+
+            resolving.remove(resolving.size() - 1);
+            state[varId] = RESOLVED;
+            return resolved[varId];
+        }
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>(4);
+        private int varId = -1;
+    }
 }
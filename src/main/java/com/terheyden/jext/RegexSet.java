@@ -0,0 +1,625 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A set of regex patterns searched together, so finding which of them match a text
+ * takes one scan instead of one scan per pattern.
+ *
+ *   RegexSet words = RegexSet.of(Val.boundWords("cat", "dog", "bird"));
+ *   words.containsAny(text);    // Stops at the first match of any pattern.
+ *   words.containsAll(text);    // Stops once every pattern has matched.
+ *   words.matching(text);       // Which of the patterns match.
+ *
+ * Two ways of combining the patterns:
+ *
+ *   - Patterns that must start with some literal text, like the ones from {@link Val#boundWords(String...)},
+ *     have their literals compiled into a {@link NeedleSet}. One pass finds every place any of them
+ *     could match, and only there is the pattern itself tried.
+ *   - The rest are merged into one big alternation: (p0)|(p1)|...
+ *
+ * Patterns whose flags have no inline form (LITERAL, CANON_EQ), that use backreferences,
+ * or that reuse another pattern's group name can't be merged. Those are scanned on their own.
+ *
+ * Immutable and thread-safe. Matchers are reused per thread.
+ * It's also a read-only {@link Set}, so {@link Val#containsAnyRegex(String, Set)} and
+ * {@link Val#containsAllRegex(String, Set)} use the single scan automatically.
+ */
+@ParametersAreNonnullByDefault
+public final class RegexSet extends AbstractSet<Pattern> {
+
+    // Flags we can turn into inline (?flags:...) groups, and their letters.
+    private static final int[] INLINE_FLAGS = {
+        Pattern.CASE_INSENSITIVE, Pattern.MULTILINE, Pattern.DOTALL, Pattern.UNICODE_CASE,
+        Pattern.COMMENTS, Pattern.UNIX_LINES, Pattern.UNICODE_CHARACTER_CLASS
+    };
+    private static final String INLINE_LETTERS = "imsuxdU";
+
+    // Chars with special meaning in a regex, outside of a [character class].
+    private static final String META_CHARS = "\\[](){}.*+?^$|";
+
+    private final List<Pattern> patterns;
+
+    // Patterns with a literal prefix: literal k is where the patterns prefixedIds[k] may start.
+    // Literals are found ignoring case, since some patterns may be case-insensitive. The pattern has the final say.
+    private final NeedleSet literals;
+    private final int[][] prefixedIds;
+    private final int[] literalLengths;
+    private final int prefixedCount;
+
+    // The merged patterns, as one alternation: (p0)|(p1)|...
+    // Alternative k is pattern mergedIds[k], captured by group number altGroups[k]. Null if nothing merged.
+    private final Pattern combined;
+    private final int[] mergedIds;
+    private final int[] altGroups;
+
+    // Patterns that couldn't be merged and get scanned on their own.
+    private final int[] standaloneIds;
+
+    // Matchers are stateful, so each thread gets its own, reset for each text.
+    // Scanner is static, so the thread-local values don't point back at us (and so at this ThreadLocal).
+    // Otherwise the entries could never be cleared, and every RegexSet ever made would stay alive in pooled threads.
+    private final ThreadLocal<Scanner> scanners;
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    private RegexSet(Collection<Pattern> pats) {
+
+        patterns = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(pats)));
+
+        Map<String, List<Integer>> prefixed = new LinkedHashMap<>();
+        List<Integer> merged = new ArrayList<>();
+        List<Integer> standalone = new ArrayList<>();
+        Set<String> groupNames = new HashSet<>();
+        StringBuilder bui = new StringBuilder();
+        int prefixedTotal = 0;
+
+        for (int id = 0; id < patterns.size(); id++) {
+
+            Pattern pat = patterns.get(id);
+            String inline = inlineFlags(pat.flags());
+
+            if (inline == null) {
+                standalone.add(id);
+                continue;
+            }
+
+            String literal = literalPrefix(pat);
+
+            if (!literal.isEmpty()) {
+                prefixed.computeIfAbsent(foldCase(literal), key -> new ArrayList<>()).add(id);
+                prefixedTotal++;
+                continue;
+            }
+
+            if (!isMergeable(pat.pattern(), groupNames)) {
+                standalone.add(id);
+                continue;
+            }
+
+            if (!merged.isEmpty()) {
+                bui.append('|');
+            }
+
+            // Comments mode would swallow our closing parens after a trailing # comment.
+            boolean comments = (pat.flags() & Pattern.COMMENTS) != 0;
+
+            bui.append("(").append(inline).append(pat.pattern()).append(comments ? "\n)" : ")");
+            if (!inline.isEmpty()) {
+                bui.append(")");
+            }
+
+            merged.add(id);
+        }
+
+        literals = NeedleSet.ofIgnoreCase(prefixed.keySet());
+        prefixedIds = new int[prefixed.size()][];
+        literalLengths = new int[prefixed.size()];
+        prefixedCount = prefixedTotal;
+
+        int lit = 0;
+        for (Map.Entry<String, List<Integer>> entry : prefixed.entrySet()) {
+            literalLengths[lit] = entry.getKey().length();
+            prefixedIds[lit++] = toArray(entry.getValue());
+        }
+
+        Pattern combinedPat = null;
+        int[] groups = new int[merged.size()];
+
+        if (!merged.isEmpty()) {
+
+            try {
+
+                combinedPat = Pattern.compile(bui.toString());
+
+                // Each alternative is our group, followed by the pattern's own groups.
+                int group = 1;
+                for (int alt = 0; alt < groups.length; alt++) {
+                    groups[alt] = group;
+                    group += 1 + groupCount(patterns.get(merged.get(alt)));
+                }
+
+                // Something we didn't anticipate (e.g. an unclosed \Q) changed the structure.
+                if (group - 1 != groupCount(combinedPat)) {
+                    combinedPat = null;
+                }
+
+            } catch (PatternSyntaxException e) {
+                combinedPat = null;
+            }
+
+            // Couldn't merge after all, so scan those on their own.
+            if (combinedPat == null) {
+                standalone.addAll(merged);
+                merged.clear();
+                groups = new int[0];
+                Collections.sort(standalone);
+            }
+        }
+
+        combined = combinedPat;
+        mergedIds = toArray(merged);
+        altGroups = groups;
+        standaloneIds = toArray(standalone);
+
+        // Only capture locals here, not fields; see above.
+        List<Pattern> scanPatterns = patterns;
+        Pattern scanCombined = combinedPat;
+        scanners = ThreadLocal.withInitial(() -> new Scanner(scanPatterns, scanCombined));
+    }
+
+    public static RegexSet of(Collection<Pattern> pats) {
+        return new RegexSet(pats);
+    }
+
+    public static RegexSet of(Pattern... pats) {
+        return new RegexSet(Arrays.asList(pats));
+    }
+
+    /**
+     * Returns the (?flags: prefix for the inline-able flags, "" for none, or null if any flag can't be inlined.
+     */
+    private static String inlineFlags(int flags) {
+
+        StringBuilder bui = new StringBuilder();
+
+        for (int i = 0; i < INLINE_FLAGS.length; i++) {
+            if ((flags & INLINE_FLAGS[i]) != 0) {
+                bui.append(INLINE_LETTERS.charAt(i));
+                flags &= ~INLINE_FLAGS[i];
+            }
+        }
+
+        if (flags != 0) {
+            return null;
+        }
+
+        return bui.length() == 0 ? "" : "(?" + bui + ":";
+    }
+
+    /**
+     * Returns the literal text every match of [pat] must start with, or "" if we can't tell.
+     * Only handles the simple, common shape: an optional \b, then plain or escaped chars.
+     */
+    static String literalPrefix(Pattern pat) {
+
+        String regex = pat.pattern();
+
+        if ((pat.flags() & Pattern.COMMENTS) != 0 || regex.contains("\\Q") || hasTopLevelOr(regex)) {
+            return "";
+        }
+
+        StringBuilder literal = new StringBuilder();
+        int i = regex.startsWith("\\b") ? 2 : 0;
+
+        while (i < regex.length()) {
+
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+
+                // Escaped symbols are literal. Escaped letters and digits are classes, anchors, etc.
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    break;
+                }
+
+                literal.append(regex.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+
+            if (META_CHARS.indexOf(c) >= 0) {
+                break;
+            }
+
+            literal.append(c);
+            i++;
+        }
+
+        // A quantifier that allows zero makes the last char optional.
+        if (literal.length() > 0 && i < regex.length() && "?*{".indexOf(regex.charAt(i)) >= 0) {
+            literal.setLength(literal.length() - 1);
+        }
+
+        return literal.toString();
+    }
+
+    /**
+     * Returns true if the regex has a | outside of any group or character class.
+     */
+    private static boolean hasTopLevelOr(String regex) {
+
+        int depth = 0;
+        boolean inClass = false;
+
+        for (int i = 0; i < regex.length(); i++) {
+
+            char c = regex.charAt(i);
+
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns false if the regex uses backreferences, which would point at the wrong groups once merged,
+     * or a group name that's already taken. Records its group names in [groupNames].
+     */
+    private static boolean isMergeable(String regex, Set<String> groupNames) {
+
+        List<String> names = new ArrayList<>();
+
+        for (int i = 0; i < regex.length() - 1; i++) {
+
+            char c = regex.charAt(i);
+            char next = regex.charAt(i + 1);
+
+            if (c == '\\') {
+
+                if (Character.isDigit(next) || next == 'k') {
+                    return false;
+                }
+
+                // Skip whatever was escaped.
+                i++;
+
+            } else if (c == '(' && regex.startsWith("?<", i + 1) && i + 3 < regex.length()
+                && Character.isLetter(regex.charAt(i + 3))) {
+
+                int end = regex.indexOf('>', i + 3);
+                if (end > 0) {
+                    names.add(regex.substring(i + 3, end));
+                }
+            }
+        }
+
+        for (String name : names) {
+            if (groupNames.contains(name)) {
+                return false;
+            }
+        }
+
+        groupNames.addAll(names);
+        return true;
+    }
+
+    private static String foldCase(String str) {
+
+        char[] chars = str.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Str.foldCase(chars[i]);
+        }
+
+        return new String(chars);
+    }
+
+    private static int groupCount(Pattern pat) {
+        return pat.matcher("").groupCount();
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // MATCH:
+
+    /**
+     * Returns true if any of the patterns are found in [text].
+     */
+    public boolean containsAny(CharSequence text) {
+
+        Scanner scanner = scanners.get();
+
+        try {
+
+            if (scanPrefixed(scanner, text, scanner.found(), true) > 0) {
+                return true;
+            }
+
+            if (combined != null && scanner.combined(text).find()) {
+                return true;
+            }
+
+            for (int id : standaloneIds) {
+                if (scanner.member(id, text).find()) {
+                    return true;
+                }
+            }
+
+            return false;
+
+        } finally {
+            scanner.release();
+        }
+    }
+
+    /**
+     * Returns true if all of the patterns are found in [text].
+     * Returns false if there are no patterns.
+     */
+    public boolean containsAll(CharSequence text) {
+
+        if (patterns.isEmpty()) {
+            return false;
+        }
+
+        Scanner scanner = scanners.get();
+        BitSet found = scanner.found();
+
+        try {
+
+            if (scanPrefixed(scanner, text, found, false) < prefixedCount
+                || scanMerged(scanner, text, found) < mergedIds.length) {
+                return false;
+            }
+
+            for (int id : standaloneIds) {
+                if (!scanner.member(id, text).find()) {
+                    return false;
+                }
+            }
+
+            return true;
+
+        } finally {
+            scanner.release();
+        }
+    }
+
+    /**
+     * Returns the patterns found in [text], in the order they were given.
+     */
+    public Set<Pattern> matching(CharSequence text) {
+
+        BitSet found = new BitSet(patterns.size());
+        Scanner scanner = scanners.get();
+
+        try {
+
+            scanPrefixed(scanner, text, found, false);
+            scanMerged(scanner, text, found);
+
+            for (int id : standaloneIds) {
+                if (scanner.member(id, text).find()) {
+                    found.set(id);
+                }
+            }
+
+        } finally {
+            scanner.release();
+        }
+
+        Set<Pattern> matching = new LinkedHashSet<>();
+        found.stream().forEach(id -> matching.add(patterns.get(id)));
+        return matching;
+    }
+
+    /**
+     * Scan once for all the literal prefixes, and try each pattern wherever its prefix shows up.
+     * Stops once every prefixed pattern is found.
+     *
+     * @param stopAtFirst stop as soon as any pattern is found
+     * @return how many prefixed patterns were found
+     */
+    private int scanPrefixed(Scanner scanner, CharSequence text, BitSet found, boolean stopAtFirst) {
+
+        if (prefixedCount == 0) {
+            return 0;
+        }
+
+        int stopAt = stopAtFirst ? 1 : prefixedCount;
+        int[] foundCount = { 0 };
+
+        literals.forEachMatch(text, (lit, end) -> {
+
+            int start = end - literalLengths[lit];
+
+            for (int id : prefixedIds[lit]) {
+                if (!found.get(id) && scanner.member(id, text).region(start, text.length()).lookingAt()) {
+                    found.set(id);
+                    foundCount[0]++;
+                }
+            }
+
+            return foundCount[0] < stopAt;
+        });
+
+        return foundCount[0];
+    }
+
+    /**
+     * Scan once with the combined pattern, marking each merged pattern found.
+     * An alternation only reports the first alternative that matches at a position, so at each hit
+     * we also check the later alternatives right there. Earlier ones can't match there, or they would have won.
+     * Stops once every merged pattern is found.
+     *
+     * @return how many merged patterns were found
+     */
+    private int scanMerged(Scanner scanner, CharSequence text, BitSet found) {
+
+        if (combined == null) {
+            return 0;
+        }
+
+        Matcher mat = scanner.combined(text);
+        int foundCount = 0;
+        int from = 0;
+
+        while (from <= text.length() && foundCount < mergedIds.length && mat.find(from)) {
+
+            int start = mat.start();
+            int alt = 0;
+
+            while (mat.start(altGroups[alt]) < 0) {
+                alt++;
+            }
+
+            for (int other = alt; other < mergedIds.length; other++) {
+
+                int id = mergedIds[other];
+
+                if (found.get(id)) {
+                    continue;
+                }
+
+                if (other == alt || scanner.member(id, text).region(start, text.length()).lookingAt()) {
+                    found.set(id);
+                    foundCount++;
+                }
+            }
+
+            from = start + 1;
+        }
+
+        return foundCount;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // SET:
+
+    @Override
+    public Iterator<Pattern> iterator() {
+        return patterns.iterator();
+    }
+
+    @Override
+    public int size() {
+        return patterns.size();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // PER-THREAD MATCHERS:
+
+    private static final class Scanner {
+
+        private final List<Pattern> patterns;
+        private final Pattern combined;
+
+        private Matcher combinedMatcher;
+        private final Matcher[] memberMatchers;
+
+        // Scratch space for which patterns were found, reused by containsAny() / containsAll().
+        private final BitSet found;
+
+        // Which member matchers were handed out since the last release().
+        private final boolean[] inUse;
+        private final int[] used;
+        private int usedCount;
+
+        Scanner(List<Pattern> patterns, Pattern combined) {
+            this.patterns = patterns;
+            this.combined = combined;
+            this.memberMatchers = new Matcher[patterns.size()];
+            this.inUse = new boolean[patterns.size()];
+            this.used = new int[patterns.size()];
+            this.found = new BitSet(patterns.size());
+        }
+
+        /**
+         * The scratch found-set, cleared.
+         */
+        BitSet found() {
+            found.clear();
+            return found;
+        }
+
+        Matcher combined(CharSequence text) {
+
+            if (combinedMatcher == null) {
+                combinedMatcher = combined.matcher(text);
+                return combinedMatcher;
+            }
+
+            return combinedMatcher.reset(text);
+        }
+
+        Matcher member(int id, CharSequence text) {
+
+            Matcher mat = memberMatchers[id];
+
+            if (!inUse[id]) {
+                inUse[id] = true;
+                used[usedCount++] = id;
+            }
+
+            if (mat == null) {
+                // Let lookbehinds and \b see past the region we set when double-checking a hit.
+                mat = patterns.get(id).matcher(text)
+                    .useTransparentBounds(true)
+                    .useAnchoringBounds(false);
+                memberMatchers[id] = mat;
+                return mat;
+            }
+
+            return mat.reset(text);
+        }
+
+        /**
+         * Don't keep the last text alive through a thread-local.
+         */
+        void release() {
+
+            if (combinedMatcher != null) {
+                combinedMatcher.reset("");
+            }
+
+            while (usedCount > 0) {
+                int id = used[--usedCount];
+                inUse[id] = false;
+                memberMatchers[id].reset("");
+            }
+        }
+    }
+}
@@ -4,6 +4,8 @@ import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.Serializable;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -11,6 +13,16 @@ import java.util.stream.Stream;
  * Immutable and Serializable.
  * A Result can be Ok / Fail.
  * A Result can have a message and/or a value.
+ *
+ * Results never change, so the common ones (ok(), fail(), ok(true), ok(false)) are shared instances
+ * that cost nothing to return. To add a message or value, use withMsg() / withValue(), which make a copy.
+ *
+ * A failed Result can carry the exception that caused it. Use a {@link Failure} for the expected,
+ * common failures; they skip the stack trace, which is most of what an exception costs.
+ *
+ * Serializing: the serialVersionUID is pinned to what it was before the cause was added, so Results
+ * saved by older versions still load (with no cause), and older versions drop the cause of newer ones.
+ * A cause is serialized along with its Result, so it has to be serializable all the way down.
  */
 @ParametersAreNonnullByDefault
 public final class Result<T> implements Serializable {
@@ -24,9 +36,24 @@ public final class Result<T> implements Serializable {
         Fail
     }
 
+    // Matches the class before it gained a cause, so the serialized form stays compatible both ways.
+    private static final long serialVersionUID = 8850330721319455499L;
+
+    private static final Result<?> OK = new Result<>(Status.Ok, null, null, null);
+    private static final Result<?> FAIL = new Result<>(Status.Fail, null, null, null);
+    private static final Result<Boolean> OK_TRUE = new Result<>(Status.Ok, true, null, null);
+    private static final Result<Boolean> OK_FALSE = new Result<>(Status.Ok, false, null, null);
+
+    // Thrown by getValueOrThrow() when there's no value and no cause. Shared with the primitive Results.
+    static final Failure NO_VALUE = Failure.constant("NO_VALUE", "Non-null value was expected.");
+
     private final Status status;
-    private String msg;
-    private T value;
+    @Nullable
+    private final String msg;
+    @Nullable
+    private final T value;
+    @Nullable
+    private final Exception cause;
 
     /**
      * Create a new Result with Unknown status.
@@ -34,6 +61,9 @@ public final class Result<T> implements Serializable {
      */
     private Result() {
         status = Status.Unknown;
+        msg = null;
+        value = null;
+        cause = null;
     }
 
     /**
@@ -41,31 +71,62 @@ public final class Result<T> implements Serializable {
      * @param status the resulting state of some action
      * @param msg an optional message to return with the result state
      * @param resultObj an optional result object to return
+     * @param cause an optional exception that caused a fail
      */
-    private Result(Status status, @Nullable T resultObj, @Nullable String msg) {
+    private Result(Status status, @Nullable T resultObj, @Nullable String msg, @Nullable Exception cause) {
         this.status = status;
         this.msg = msg;
         this.value = resultObj;
+        this.cause = cause;
     }
 
-    public static <T> Result<T> ok(T resultVal, String resultMsg) {
-        return new Result<>(Status.Ok, resultVal, resultMsg);
+    public static <T> Result<T> ok(@Nullable T resultVal, @Nullable String resultMsg) {
+        return resultMsg == null ? ok(resultVal) : new Result<>(Status.Ok, resultVal, resultMsg, null);
     }
 
-    public static <T> Result<T> ok(T resultVal) {
-        return new Result<>(Status.Ok, resultVal, null);
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> ok(@Nullable T resultVal) {
+
+        if (resultVal == null) {
+            return ok();
+        } else if (resultVal instanceof Boolean) {
+            // Lots of yes / no answers out there, e.g. CompiledRegex.find().
+            return (Result<T>) ((Boolean) resultVal ? OK_TRUE : OK_FALSE);
+        }
+
+        return new Result<>(Status.Ok, resultVal, null, null);
     }
 
+    /**
+     * A shared instance, so this never allocates.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> Result<T> ok() {
-        return new Result<>(Status.Ok, null, null);
+        return (Result<T>) OK;
     }
 
-    public static <T> Result<T> fail(String resultMsg) {
-        return new Result<>(Status.Fail, null, resultMsg);
+    public static <T> Result<T> fail(@Nullable String resultMsg) {
+        return resultMsg == null ? fail() : new Result<>(Status.Fail, null, resultMsg, null);
     }
 
+    /**
+     * A shared instance, so this never allocates.
+     */
+    @SuppressWarnings("unchecked")
     public static <T> Result<T> fail() {
-        return new Result<>(Status.Fail, null, null);
+        return (Result<T>) FAIL;
+    }
+
+    /**
+     * A fail caused by [cause], with its message. A null cause gives a plain {@link #fail()}.
+     * Passing a literal null to fail() is ambiguous now; cast it to String or Exception.
+     */
+    public static <T> Result<T> fail(@Nullable Exception cause) {
+        return cause == null ? fail() : new Result<>(Status.Fail, null, cause.getMessage(), cause);
+    }
+
+    public static <T> Result<T> fail(@Nullable String resultMsg, @Nullable Exception cause) {
+        return cause == null ? fail(resultMsg) : new Result<>(Status.Fail, null, resultMsg, cause);
     }
 
     public static <T> Result<T> okIfNotNull(@Nullable T resultVal) {
@@ -77,6 +138,29 @@ public final class Result<T> implements Serializable {
         return ok(resultVal);
     }
 
+    /**
+     * Use the shared instances where we can.
+     */
+    private static <T> Result<T> of(Status status, @Nullable T value, @Nullable String msg, @Nullable Exception cause) {
+
+        if (cause != null) {
+            return new Result<>(status, value, msg, cause);
+        } else if (status == Status.Ok) {
+            return ok(value, msg);
+        } else if (status == Status.Fail && value == null) {
+            return fail(msg);
+        }
+
+        return new Result<>(status, value, msg, null);
+    }
+
+    /**
+     * Deserialize into the shared instances too, so they stay the only ones.
+     */
+    private Object readResolve() {
+        return of(status, value, msg, cause);
+    }
+
     /**
      * Returns true if the result was Ok.
      */
@@ -91,9 +175,20 @@ public final class Result<T> implements Serializable {
         return status == Status.Fail;
     }
 
-    public Result<T> setMsg(String msg) {
-        this.msg = msg;
-        return this;
+    /**
+     * A copy of this Result with [msg] instead.
+     */
+    public Result<T> withMsg(@Nullable String msg) {
+        return Val.equals(msg, this.msg) ? this : of(status, value, msg, cause);
+    }
+
+    /**
+     * Results are immutable now, so this no longer changes this Result: it returns a copy,
+     * same as {@link #withMsg(String)}. Use the return value. Will be removed in the next release.
+     */
+    @Deprecated
+    public Result<T> setMsg(@Nullable String msg) {
+        return withMsg(msg);
     }
 
     public boolean hasMsg() {
@@ -108,9 +203,21 @@ public final class Result<T> implements Serializable {
         return this.msg == null ? defaultMsg : this.msg;
     }
 
-    public Result<T> setValue(T value) {
-        this.value = value;
-        return this;
+    /**
+     * A copy of this Result with [value] instead.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Result<V> withValue(@Nullable V value) {
+        return value == this.value ? (Result<V>) this : of(status, value, msg, cause);
+    }
+
+    /**
+     * Results are immutable now, so this no longer changes this Result: it returns a copy,
+     * same as {@link #withValue(Object)}. Use the return value. Will be removed in the next release.
+     */
+    @Deprecated
+    public Result<T> setValue(@Nullable T value) {
+        return withValue(value);
     }
 
     public boolean hasValue() {
@@ -125,19 +232,36 @@ public final class Result<T> implements Serializable {
         return value != null ? value : defaultVal;
     }
 
+    /**
+     * The exception that caused this fail, if there was one.
+     */
+    public @Nullable Exception getCause() {
+        return cause;
+    }
+
+    public boolean hasCause() {
+        return cause != null;
+    }
+
+    /**
+     * Return the value, or throw a {@link Failure} with [throwMsg] (and our cause, if any).
+     */
     public T getValueOrThrow(String throwMsg) throws Exception {
 
         if (value == null) {
-            throw new Exception(throwMsg);
+            throw Failure.of(throwMsg, cause);
         }
 
         return value;
     }
 
+    /**
+     * Return the value, or throw our cause. With no cause, throws a shared, stackless {@link Failure}.
+     */
     public T getValueOrThrow() throws Exception {
 
         if (value == null) {
-            throw new Exception("Non-null value was expected.");
+            throw cause != null ? cause : NO_VALUE;
         }
 
         return value;
@@ -152,6 +276,37 @@ public final class Result<T> implements Serializable {
         return value;
     }
 
+    /**
+     * If Ok with a value, apply [mapper] to it. Message and cause are kept.
+     * Anything else (no value, or a fail) comes back as-is.
+     */
+    public <R> Result<R> map(Function<? super T, ? extends R> mapper) {
+        return isOk() && value != null ? withValue(mapper.apply(value)) : withoutValue();
+    }
+
+    /**
+     * If Ok with a value, return what [mapper] makes of it. Anything else comes back as-is.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Result<R> flatMap(Function<? super T, ? extends Result<? extends R>> mapper) {
+        return isOk() && value != null ? (Result<R>) mapper.apply(value) : withoutValue();
+    }
+
+    /**
+     * The value, if Ok; otherwise empty.
+     */
+    public Optional<T> toOptional() {
+        return isOk() ? Optional.ofNullable(value) : Optional.empty();
+    }
+
+    /**
+     * This Result, minus any value, as any type. (Fails can have a value, but not one of the new type.)
+     */
+    @SuppressWarnings("unchecked")
+    <R> Result<R> withoutValue() {
+        return value == null ? (Result<R>) this : of(status, null, msg, cause);
+    }
+
     public Stream<T> resultStream() {
 
         if (value == null) {
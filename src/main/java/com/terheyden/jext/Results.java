@@ -0,0 +1,210 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Run lots of independent tasks in parallel, and gather up their results in one {@link BatchResult}:
+ *
+ *   BatchResult<Invoice> invoices = Results.runAll(tasks, pool, 16, 100);
+ *   log.info("{} ok, {} failed: {}", invoices.okCount(), invoices.failCount(), invoices.failureMessages());
+ *
+ * At most [maxConcurrency] tasks run at once. Give up early with [maxFailures]: once more than that many
+ * tasks have failed, no new ones are started (the ones already running finish), and the rest are skipped.
+ *
+ * The calling thread pitches in, so a busy (or 1-thread) executor can't stall the batch.
+ * On newer JDKs, a virtual-thread executor works fine here too.
+ */
+@ParametersAreNonnullByDefault
+public final class Results {
+
+    private static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private Results() {
+        // Private since this class shouldn't be instantiated.
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // SUPPLIERS:
+
+    /**
+     * Run [tasks] on the common fork-join pool, as many at once as it has threads.
+     * Whatever a task returns is an Ok; whatever it throws, a fail.
+     */
+    public static <T> BatchResult<T> runAll(Collection<? extends Except.ThrowableSupplier<? extends T>> tasks) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return runAll(tasks, pool, pool.getParallelism(), NO_LIMIT);
+    }
+
+    public static <T> BatchResult<T> runAll(
+        Collection<? extends Except.ThrowableSupplier<? extends T>> tasks, Executor executor, int maxConcurrency) {
+
+        return runAll(tasks, executor, maxConcurrency, NO_LIMIT);
+    }
+
+    /**
+     * Run [tasks] on [executor], at most [maxConcurrency] at once, and stop once more than [maxFailures] fail.
+     */
+    public static <T> BatchResult<T> runAll(Collection<? extends Except.ThrowableSupplier<? extends T>> tasks,
+        Executor executor, int maxConcurrency, int maxFailures) {
+
+        List<? extends Except.ThrowableSupplier<? extends T>> list = toList(tasks);
+        return run(list.size(), index -> Except.<T>attempt(() -> list.get(index).get()), executor, maxConcurrency, maxFailures);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // RESULT SUPPLIERS:
+
+    /**
+     * For tasks that return a Result themselves: a fail Result counts as a fail, same as throwing.
+     */
+    public static <T> BatchResult<T> runAllResults(
+        Collection<? extends Except.ThrowableSupplier<? extends Result<? extends T>>> tasks) {
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return runAllResults(tasks, pool, pool.getParallelism(), NO_LIMIT);
+    }
+
+    public static <T> BatchResult<T> runAllResults(
+        Collection<? extends Except.ThrowableSupplier<? extends Result<? extends T>>> tasks,
+        Executor executor, int maxConcurrency) {
+
+        return runAllResults(tasks, executor, maxConcurrency, NO_LIMIT);
+    }
+
+    public static <T> BatchResult<T> runAllResults(
+        Collection<? extends Except.ThrowableSupplier<? extends Result<? extends T>>> tasks,
+        Executor executor, int maxConcurrency, int maxFailures) {
+
+        List<? extends Except.ThrowableSupplier<? extends Result<? extends T>>> list = toList(tasks);
+
+        return run(list.size(), index -> {
+
+            Result<? extends Result<? extends T>> attempt = Except.attempt(list.get(index));
+
+            if (attempt.isFail()) {
+                return attempt.withoutValue();
+            }
+
+            Result<? extends T> result = attempt.getValue();
+            return result == null ? Result.ok() : result.map(val -> val);
+
+        }, executor, maxConcurrency, maxFailures);
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // RUN:
+
+    /**
+     * The workers pick tasks by index, so copy anything that's slow to index into, like a LinkedList.
+     */
+    private static <T> List<T> toList(Collection<T> tasks) {
+        return tasks instanceof List && tasks instanceof RandomAccess ? (List<T>) tasks : new ArrayList<>(tasks);
+    }
+
+    private static <T> BatchResult<T> run(int size, IntFunction<Result<T>> runOne,
+        Executor executor, int maxConcurrency, int maxFailures) {
+
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1: " + maxConcurrency);
+        } else if (maxFailures < 0) {
+            throw new IllegalArgumentException("Max failures can't be negative: " + maxFailures);
+        }
+
+        Batch<T> batch = new Batch<>(size, runOne, maxFailures);
+        int workers = Math.min(maxConcurrency, size);
+
+        if (workers <= 1) {
+            batch.work();
+            return batch.build();
+        }
+
+        // Not CompletableFuture: on a 1-CPU box it swaps the common pool for a new thread per task.
+        List<FutureTask<Void>> futures = new ArrayList<>(workers);
+
+        for (int i = 0; i < workers; i++) {
+            FutureTask<Void> future = new FutureTask<>(batch::work, null);
+            futures.add(future);
+            executor.execute(future);
+        }
+
+        for (FutureTask<Void> future : futures) {
+
+            // Help out: run it ourselves if the executor hasn't got to it yet. (A no-op if it has.)
+            future.run();
+            Except.wrap(() -> { future.get(); });
+        }
+
+        return batch.build();
+    }
+
+    /**
+     * The shared state of one runAll(). Each worker claims the next task until they're gone, or we give up.
+     * Each slot is written by one worker only, and read after they're all joined.
+     */
+    private static final class Batch<T> {
+
+        private final IntFunction<Result<T>> runOne;
+        private final int maxFailures;
+
+        private final Object[] values;
+        private final Exception[] causes;
+        private final boolean[] done;
+
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+
+        Batch(int size, IntFunction<Result<T>> runOne, int maxFailures) {
+            this.runOne = runOne;
+            this.maxFailures = maxFailures;
+            this.values = new Object[size];
+            this.causes = new Exception[size];
+            this.done = new boolean[size];
+        }
+
+        void work() {
+
+            for (int index = next.getAndIncrement(); index < values.length; index = next.getAndIncrement()) {
+
+                if (failures.get() > maxFailures) {
+                    return;
+                }
+
+                Result<T> result = runOne.apply(index);
+                done[index] = true;
+
+                if (result.isOk()) {
+                    values[index] = result.getValue();
+                } else {
+                    Exception cause = result.getCause();
+                    causes[index] = cause != null ? cause : Failure.of(result.getMsgOrDefault("Failed."));
+                    failures.incrementAndGet();
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        BatchResult<T> build() {
+
+            BatchResult.Builder<T> results = new BatchResult.Builder<>(values.length);
+
+            for (int i = 0; i < values.length; i++) {
+                if (causes[i] != null) {
+                    results.fail(i, causes[i]);
+                } else if (done[i]) {
+                    results.ok(i, (T) values[i]);
+                }
+            }
+
+            return results.build();
+        }
+    }
+}
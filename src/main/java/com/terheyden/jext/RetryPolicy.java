@@ -0,0 +1,225 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * How {@link Except#retry(Except.ThrowableSupplier, RetryPolicy)} retries:
+ *
+ *   private static final RetryPolicy FLAKY_IO = new RetryPolicy()
+ *       .maxAttempts(5)
+ *       .backoff(50, 2000, TimeUnit.MILLISECONDS)
+ *       .retryOn(e -> e instanceof IOException);
+ *
+ * The delay before retry n is initialDelay * multiplier^(n-1), capped at maxDelay,
+ * then cut by a random amount of up to [jitter] (a fraction), so a crowd of retries doesn't all land at once.
+ *
+ * Also keeps count of what it's been used for; see {@link #stats()}.
+ * The settings aren't thread-safe, but retrying is: set up once, then share.
+ */
+@ParametersAreNonnullByDefault
+public final class RetryPolicy {
+
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+    public static final long DEFAULT_INITIAL_DELAY_MILLIS = 100;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 10_000;
+    public static final double DEFAULT_MULTIPLIER = 2;
+    public static final double DEFAULT_JITTER = 0.5;
+
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private long initialDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_INITIAL_DELAY_MILLIS);
+    private long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_MAX_DELAY_MILLIS);
+    private double multiplier = DEFAULT_MULTIPLIER;
+    private double jitter = DEFAULT_JITTER;
+    private Predicate<? super Exception> retryOn = e -> true;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder delayNanos = new LongAdder();
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // CONSTRUCT:
+
+    /**
+     * How many times to try, in total. 1 means no retries.
+     */
+    public RetryPolicy maxAttempts(int maxAttempts) {
+
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1: " + maxAttempts);
+        }
+
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * Wait [initialDelay] before the first retry, and never more than [maxDelay].
+     */
+    public RetryPolicy backoff(long initialDelay, long maxDelay, TimeUnit unit) {
+
+        if (initialDelay < 0 || maxDelay < initialDelay) {
+            throw new IllegalArgumentException(String.format(
+                "Bad backoff: initialDelay=%d, maxDelay=%d", initialDelay, maxDelay));
+        }
+
+        this.initialDelayNanos = unit.toNanos(initialDelay);
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        return this;
+    }
+
+    /**
+     * How much longer to wait before each retry than the one before. 1 is a fixed delay.
+     */
+    public RetryPolicy multiplier(double multiplier) {
+
+        if (!(multiplier >= 1)) {
+            throw new IllegalArgumentException("Multiplier must be at least 1: " + multiplier);
+        }
+
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * Cut each delay by a random fraction, up to [jitter]. 0 is no jitter, 1 is anywhere from 0 to the full delay.
+     */
+    public RetryPolicy jitter(double jitter) {
+
+        if (!(jitter >= 0 && jitter <= 1)) {
+            throw new IllegalArgumentException("Jitter must be from 0 to 1: " + jitter);
+        }
+
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * Only retry exceptions that pass [retryOn]; anything else fails right away. By default, everything's retried.
+     */
+    public RetryPolicy retryOn(Predicate<? super Exception> retryOn) {
+        this.retryOn = retryOn;
+        return this;
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // RETRY:
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Should we try again, after [attempt] (from 1) threw [e]?
+     */
+    boolean shouldRetry(int attempt, Exception e) {
+        return attempt < maxAttempts && retryOn.test(e);
+    }
+
+    /**
+     * How long to wait before trying again, after [attempt] (from 1) failed.
+     */
+    long delayNanos(int attempt) {
+
+        double delay = initialDelayNanos * Math.pow(multiplier, attempt - 1);
+        long capped = (long) Math.min(delay, maxDelayNanos);
+
+        if (jitter > 0 && capped > 0) {
+            capped -= (long) (capped * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+
+        return capped;
+    }
+
+    void recordDelay(long nanos) {
+        delayNanos.add(nanos);
+    }
+
+    void recordDone(int attemptCount, boolean ok) {
+        calls.increment();
+        attempts.add(attemptCount);
+        (ok ? successes : failures).increment();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // STATS:
+
+    public Stats stats() {
+        return new Stats(calls.sum(), attempts.sum(), successes.sum(), failures.sum(), delayNanos.sum());
+    }
+
+    public void resetStats() {
+        calls.reset();
+        attempts.reset();
+        successes.reset();
+        failures.reset();
+        delayNanos.reset();
+    }
+
+    /**
+     * What a RetryPolicy has been up to, since it was made (or since {@link #resetStats()}).
+     */
+    public static final class Stats {
+
+        private final long calls;
+        private final long attempts;
+        private final long successes;
+        private final long failures;
+        private final long delayNanos;
+
+        private Stats(long calls, long attempts, long successes, long failures, long delayNanos) {
+            this.calls = calls;
+            this.attempts = attempts;
+            this.successes = successes;
+            this.failures = failures;
+            this.delayNanos = delayNanos;
+        }
+
+        /**
+         * Finished retry() calls.
+         */
+        public long calls() {
+            return calls;
+        }
+
+        /**
+         * Tries made by finished calls, including the first one of each.
+         */
+        public long attempts() {
+            return attempts;
+        }
+
+        public long retries() {
+            return attempts - calls;
+        }
+
+        public long successes() {
+            return successes;
+        }
+
+        /**
+         * Calls that gave up: out of attempts, an exception not worth retrying, or cancelled.
+         */
+        public long failures() {
+            return failures;
+        }
+
+        /**
+         * Time spent waiting between attempts, over all calls.
+         */
+        public long totalDelay(TimeUnit unit) {
+            return unit.convert(delayNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("RetryPolicy.Stats[calls=%d, attempts=%d, successes=%d, failures=%d, totalDelay=%dms]",
+                calls, attempts, successes, failures, totalDelay(TimeUnit.MILLISECONDS));
+        }
+    }
+}
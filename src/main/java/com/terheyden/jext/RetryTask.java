@@ -0,0 +1,217 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One {@link Except#retry(Except.ThrowableSupplier, RetryPolicy)} call.
+ *
+ * With a scheduler, each retry is a scheduled task, so no thread sits waiting out the delays.
+ * Without one, it's a plain loop that sleeps in between. Either way, the first try runs right away,
+ * in the caller's thread, so a call that works the first time never touches the scheduler.
+ *
+ * Whatever happens, the future completes: an Error from the function, or a retryOn() predicate
+ * that throws, ends the retrying with a fail caused by it.
+ */
+@ParametersAreNonnullByDefault
+final class RetryTask<T> implements Runnable {
+
+    private final Except.ThrowableSupplier<T> func;
+    private final RetryPolicy policy;
+    @Nullable
+    private final ScheduledExecutorService scheduler;
+
+    private final CompletableFuture<Result<T>> future = new CompletableFuture<>();
+
+    // Only changed by one thread at a time; scheduling hands it over safely.
+    // Volatile since cancelling reads it from another thread.
+    private volatile int attempt;
+
+    // How long the next scheduled try waits. It's only counted in the stats once that try runs,
+    // so a rejected or cancelled wait isn't. Handed over by scheduling, like attempt.
+    private long scheduledDelay;
+
+    // The next try, once it's scheduled, so cancelling can unschedule it.
+    @Nullable
+    private volatile ScheduledFuture<?> next;
+
+    // Set by whoever records this call in the stats: finishing or cancelling, whichever's first.
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    RetryTask(Except.ThrowableSupplier<T> func, RetryPolicy policy, @Nullable ScheduledExecutorService scheduler) {
+        this.func = func;
+        this.policy = policy;
+        this.scheduler = scheduler;
+        future.whenComplete((result, e) -> {
+            if (future.isCancelled()) {
+                cancelled();
+            }
+        });
+    }
+
+    CompletableFuture<Result<T>> start() {
+
+        if (scheduler == null) {
+            runBlocking();
+        } else {
+            run();
+        }
+
+        return future;
+    }
+
+    /**
+     * One try, then schedule the next one if needed.
+     */
+    @Override
+    public void run() {
+
+        // Cancelled, most likely.
+        if (future.isDone()) {
+            return;
+        }
+
+        policy.recordDelay(scheduledDelay);
+        scheduledDelay = 0;
+
+        try {
+
+            Exception e = attemptOnce();
+
+            if (e == null) {
+                return;
+            }
+
+            long delay = nextDelay(e);
+
+            if (delay < 0) {
+                return;
+            }
+
+            ScheduledFuture<?> scheduled;
+            scheduledDelay = delay;
+
+            try {
+                scheduled = scheduler.schedule(this, delay, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException rejected) {
+                // Shutting down; this is as far as we get.
+                finish(Result.fail(e));
+                return;
+            }
+
+            next = scheduled;
+
+            // Cancelled while we were scheduling, so cancelled() may have missed it.
+            if (future.isCancelled()) {
+                scheduled.cancel(false);
+            }
+
+        } catch (Throwable t) {
+            stopped(t);
+        }
+    }
+
+    private void runBlocking() {
+
+        try {
+
+            while (!future.isDone()) {
+
+                Exception e = attemptOnce();
+
+                if (e == null) {
+                    return;
+                }
+
+                long delay = nextDelay(e);
+
+                if (delay < 0) {
+                    return;
+                }
+
+                try {
+                    TimeUnit.NANOSECONDS.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    finish(Result.fail(e));
+                    return;
+                }
+
+                policy.recordDelay(delay);
+            }
+
+        } catch (Throwable t) {
+            stopped(t);
+        }
+    }
+
+    /**
+     * Try once. If it works, we're done, and this returns null. Otherwise returns what it threw.
+     */
+    @Nullable
+    private Exception attemptOnce() {
+
+        attempt++;
+
+        try {
+            T val = func.get();
+            finish(Result.ok(val));
+            return null;
+        } catch (Exception e) {
+            return e;
+        }
+    }
+
+    /**
+     * How long to wait before trying again after [e], or -1 (and we're done) if we shouldn't.
+     * The caller records the delay once it's actually been waited out.
+     */
+    private long nextDelay(Exception e) {
+
+        if (!policy.shouldRetry(attempt, e)) {
+            finish(Result.fail(e));
+            return -1;
+        }
+
+        return policy.delayNanos(attempt);
+    }
+
+    /**
+     * Something other than the function's Exceptions got thrown, so stop, and say why.
+     */
+    private void stopped(Throwable t) {
+        finish(Result.fail(Failure.of("Retrying stopped: " + t, t)));
+    }
+
+    private void finish(Result<T> result) {
+
+        if (recorded.compareAndSet(false, true)) {
+            policy.recordDone(attempt, result.isOk());
+        }
+
+        future.complete(result);
+    }
+
+    /**
+     * The caller cancelled the future: unschedule the next try, and count the call as a failure.
+     */
+    private void cancelled() {
+
+        ScheduledFuture<?> scheduled = next;
+
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+
+        if (recorded.compareAndSet(false, true)) {
+            policy.recordDone(attempt, false);
+        }
+    }
+}
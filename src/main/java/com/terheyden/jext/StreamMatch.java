@@ -0,0 +1,85 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.regex.Matcher;
+
+/**
+ * One regex match found while streaming through text with
+ * {@link CompiledRegex#forEachMatch(java.io.Reader, java.util.function.Predicate)}.
+ *
+ * Offsets are char offsets from the start of the stream, so they're longs.
+ * The groups are copied out, so the match stays valid after the scan moves on.
+ */
+@ParametersAreNonnullByDefault
+public final class StreamMatch {
+
+    private final CompiledRegex regex;
+    private final long start;
+    private final long end;
+
+    // Group 0 is the whole match. Null where a group didn't capture.
+    private final String[] groups;
+
+    StreamMatch(CompiledRegex regex, Matcher mat, long windowOffset) {
+
+        this.regex = regex;
+        this.start = windowOffset + mat.start();
+        this.end = windowOffset + mat.end();
+        this.groups = new String[mat.groupCount() + 1];
+
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = mat.group(i);
+        }
+    }
+
+    /**
+     * Offset of the first char of the match, from the start of the stream.
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * Offset of the char after the match, from the start of the stream.
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * The whole match.
+     */
+    public String group() {
+        return groups[0];
+    }
+
+    /**
+     * What group [group] captured, or null if it didn't.
+     *
+     * @throws IndexOutOfBoundsException if there's no such group
+     */
+    @Nullable
+    public String group(int group) {
+        return groups[group];
+    }
+
+    /**
+     * What the named group captured, or null if it didn't or there's no such group.
+     */
+    @Nullable
+    public String group(String groupName) {
+        int group = regex.groupIndex(groupName);
+        return group < 0 ? null : groups[group];
+    }
+
+    public int groupCount() {
+        return groups.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StreamMatch[%d-%d: %s]", start, end, groups[0]);
+    }
+}
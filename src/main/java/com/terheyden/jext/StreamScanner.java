@@ -0,0 +1,228 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+
+/**
+ * Finds regex matches in a stream of text, holding only a window of it in memory at a time.
+ * Used by the {@link CompiledRegex#forEachMatch(Reader, Predicate)} family.
+ *
+ * The window starts small and grows as needed to hold a match, up to [maxWindow] chars.
+ * A match longer than about half the max window can be missed.
+ */
+@ParametersAreNonnullByDefault
+final class StreamScanner {
+
+    static final int DEFAULT_MAX_WINDOW = 1024 * 1024;
+
+    private static final int INITIAL_WINDOW = 64 * 1024;
+
+    // Chars kept from before the search position when sliding the window,
+    // so lookbehinds, \b, and ^ still see what came before.
+    private static final int CONTEXT = 256;
+
+    // How much of a file to memory-map at once.
+    private static final int MAP_SEGMENT = 64 * 1024 * 1024;
+
+    private StreamScanner() {
+        // Private since this class shouldn't be instantiated.
+    }
+
+    /**
+     * Report each match in the stream to [visitor], until the stream ends or the visitor returns false.
+     *
+     * @return an Ok Result with the number of matches, or a Fail Result if a match ran out of budget
+     */
+    static Result<Long> scan(CompiledRegex regex, Reader reader, int maxWindow, Predicate<StreamMatch> visitor)
+        throws IOException {
+
+        if (maxWindow < 2 * CONTEXT) {
+            throw new IllegalArgumentException("Window must be at least " + 2 * CONTEXT + " chars: " + maxWindow);
+        }
+
+        char[] buf = new char[Math.min(INITIAL_WINDOW, maxWindow)];
+        int len = 0;            // How many chars are in buf.
+        long bufOffset = 0;     // Stream offset of buf[0].
+        int pos = 0;            // Where in buf to search next.
+        boolean eof = false;
+        boolean needMore = true;
+        long count = 0;
+
+        Matcher mat = regex.pattern().matcher("")
+            .useTransparentBounds(true)
+            .useAnchoringBounds(false);
+
+        try {
+
+            while (true) {
+
+                if (needMore) {
+
+                    if (eof) {
+                        break;
+                    }
+
+                    // Slide the window past what we're done with, keeping a little context.
+                    int keepFrom = Math.max(0, Math.min(pos, len) - CONTEXT);
+
+                    if (keepFrom > 0) {
+                        System.arraycopy(buf, keepFrom, buf, 0, len - keepFrom);
+                        len -= keepFrom;
+                        pos -= keepFrom;
+                        bufOffset += keepFrom;
+                    }
+
+                    if (len == buf.length) {
+
+                        if (buf.length < maxWindow) {
+                            char[] bigger = new char[Math.min(buf.length * 2, maxWindow)];
+                            System.arraycopy(buf, 0, bigger, 0, len);
+                            buf = bigger;
+                        } else {
+                            // A match here would be too long to hold, so give up on the first half.
+                            pos += Math.max(1, (len - pos) / 2);
+                            continue;
+                        }
+                    }
+
+                    int read = reader.read(buf, len, buf.length - len);
+
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        len += read;
+                    }
+
+                    needMore = false;
+                }
+
+                // After an empty match right at the end of the window.
+                if (pos > len) {
+                    needMore = true;
+                    continue;
+                }
+
+                mat.reset(regex.budgeted(CharBuffer.wrap(buf, 0, len))).region(pos, len);
+                boolean found = mat.find();
+
+                // If the engine hit the end of the window, more text could change the answer.
+                if (found && (eof || !mat.hitEnd())) {
+
+                    count++;
+
+                    if (!visitor.test(new StreamMatch(regex, mat, bufOffset))) {
+                        break;
+                    }
+
+                    // Same as Matcher.find(): don't find the same empty match twice.
+                    pos = mat.end() == mat.start() ? mat.end() + 1 : mat.end();
+                    continue;
+                }
+
+                // Nothing starts anywhere in this window, and more text won't change that.
+                if (!found && !mat.hitEnd()) {
+                    pos = len;
+                }
+
+                needMore = true;
+            }
+
+        } catch (MatchBudget.Exceeded e) {
+            return Result.fail(regex.budget().recordAbort(e));
+        }
+
+        return Result.ok(count);
+    }
+
+    /**
+     * Return a Reader that decodes the file through memory-mapped segments,
+     * so the file's bytes stay out of the heap.
+     */
+    static Reader mappedReader(Path file, Charset charset) throws IOException {
+        return new MappedReader(FileChannel.open(file, StandardOpenOption.READ), charset);
+    }
+
+    /**
+     * Decodes a file one memory-mapped segment at a time.
+     */
+    private static final class MappedReader extends Reader {
+
+        private final FileChannel channel;
+        private final long size;
+        private final CharsetDecoder decoder;
+
+        private ByteBuffer segment = ByteBuffer.allocate(0);
+        private long segmentOffset;
+        private boolean flushed;
+
+        MappedReader(FileChannel channel, Charset charset) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+
+            if (len == 0) {
+                return 0;
+            }
+
+            if (flushed) {
+                return -1;
+            }
+
+            CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+
+            while (out.position() == off) {
+
+                long segmentEnd = segmentOffset + segment.limit();
+                boolean lastSegment = segmentEnd >= size;
+
+                CoderResult res = decoder.decode(segment, out, lastSegment);
+
+                if (res.isError()) {
+                    res.throwException();
+                }
+
+                if (res.isOverflow()) {
+                    break;
+                }
+
+                if (!lastSegment) {
+                    // Map the next segment, starting with any bytes of a char split across the boundary.
+                    segmentOffset += segment.position();
+                    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentOffset,
+                        Math.min(MAP_SEGMENT, size - segmentOffset));
+                    continue;
+                }
+
+                // That's the end of the file; the decoder may still be holding some chars.
+                flushed = decoder.flush(out).isUnderflow();
+                break;
+            }
+
+            int read = out.position() - off;
+            return read == 0 ? -1 : read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
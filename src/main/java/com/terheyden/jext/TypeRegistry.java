@@ -0,0 +1,112 @@
+package com.terheyden.jext;
+
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Something to do per type (a validator, a formatter, ...), worked out once per class and cached in a ClassValue.
+ *
+ * Values registered for a type apply to its subtypes too, and win over the built-in value;
+ * the closest registered type wins: the class itself, then its superclasses, then its interfaces.
+ * Registering is slow (it throws away the cache), so do it at startup. Lookups never lock.
+ */
+@ParametersAreNonnullByDefault
+final class TypeRegistry<V> {
+
+    // What to use for types nobody registered anything for.
+    private final Function<Class<?>, V> builtIn;
+
+    private final Map<Class<?>, V> registered = new ConcurrentHashMap<>();
+
+    // Replaced whenever something is registered, since earlier lookups may now be wrong.
+    private volatile ClassValue<V> cache = newCache();
+
+    TypeRegistry(Function<Class<?>, V> builtIn) {
+        this.builtIn = builtIn;
+    }
+
+    V get(Class<?> type) {
+        return cache.get(type);
+    }
+
+    void register(Class<?> type, V value) {
+        registered.put(type, value);
+        cache = newCache();
+    }
+
+    void unregister(Class<?> type) {
+        if (registered.remove(type) != null) {
+            cache = newCache();
+        }
+    }
+
+    private ClassValue<V> newCache() {
+
+        return new ClassValue<V>() {
+            @Override
+            protected V computeValue(Class<?> type) {
+                V custom = findRegistered(type);
+                return custom != null ? custom : builtIn.apply(type);
+            }
+        };
+    }
+
+    /**
+     * Find the registered value closest to [type]: the class itself, then its superclasses,
+     * then its interfaces, nearest first.
+     */
+    @Nullable
+    private V findRegistered(Class<?> type) {
+
+        if (registered.isEmpty()) {
+            return null;
+        }
+
+        for (Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+
+            V value = registered.get(cls);
+
+            if (value != null) {
+                return value;
+            }
+        }
+
+        Deque<Class<?>> todo = new ArrayDeque<>();
+        Set<Class<?>> seen = new HashSet<>();
+
+        for (Class<?> cls = type; cls != null; cls = cls.getSuperclass()) {
+            for (Class<?> iface : cls.getInterfaces()) {
+                todo.add(iface);
+            }
+        }
+
+        while (!todo.isEmpty()) {
+
+            Class<?> iface = todo.poll();
+
+            if (!seen.add(iface)) {
+                continue;
+            }
+
+            V value = registered.get(iface);
+
+            if (value != null) {
+                return value;
+            }
+
+            for (Class<?> parent : iface.getInterfaces()) {
+                todo.add(parent);
+            }
+        }
+
+        return null;
+    }
+}
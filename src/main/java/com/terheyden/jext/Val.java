@@ -1,18 +1,24 @@
 package com.terheyden.jext;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.io.File;
-import java.lang.reflect.Array;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -32,6 +38,12 @@ public class Val {
     private static final File EMPTY_FILE = new File("");
     private static final Path EMPTY_PATH = Paths.get("");
 
+    // Default messages for the throwIf*() checks.
+    private static final String NULL_MSG = "Unexpected null value.";
+    private static final String EMPTY_MSG = "Empty value.";
+    private static final String EXISTS_MSG = "Path already exists.";
+    private static final String NOT_EXISTS_MSG = "Path does not exist.";
+
     private Val() {
         // Util class.
     }
@@ -52,22 +64,90 @@ public class Val {
     }
 
     public static <T> T throwIfNull(T obj, String errMsg, Object... errMsgArgs) {
+        return throwIf(isNull(obj), obj, orIfNull(errMsg, NULL_MSG), errMsgArgs);
+    }
+
+    /**
+     * Fixed-arg versions of {@link #throwIfNull(Object, String, Object...)}, so passing checks don't allocate
+     * a varargs array. With object args (Strings, etc.) nothing is allocated; primitive args are still boxed.
+     * An Object[] passed as the only arg is spread, like varargs.
+     */
+    public static <T> T throwIfNull(T obj, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isNull(obj), obj, orIfNull(errMsg, NULL_MSG), errMsgArg);
+    }
 
-        if (notNull(obj)) {
-            return obj;
+    public static <T> T throwIfNull(T obj, String errMsg, @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isNull(obj), obj, orIfNull(errMsg, NULL_MSG), errMsgArg1, errMsgArg2);
+    }
+
+    public static <T> T throwIfNull(T obj, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isNull(obj), obj, orIfNull(errMsg, NULL_MSG), errMsgArg1, errMsgArg2, errMsgArg3);
+    }
+
+    /**
+     * Same as {@link #throwIfNull(Object, String, Object...)}, but the message is only built if it's needed,
+     * so the check costs nothing when it passes: no varargs array, no boxing, no formatting.
+     * Use it when the message args are primitives; the other forms box those on every call.
+     */
+    public static <T> T throwIfNull(T obj, @Nullable Supplier<String> errMsg) {
+        return throwIf(isNull(obj), obj, errMsg, NULL_MSG);
+    }
+
+    public static <T> T throwIfNull(T obj) {
+        return throwIfNull(obj, (Supplier<String>) null);
+    }
+
+    /**
+     * What every throwIf*() check does once it knows if it [failed]. The message is only formatted when failing.
+     */
+    private static <T> T throwIf(boolean failed, T val, String errMsg, @Nullable Object[] errMsgArgs) {
+
+        if (failed) {
+            throw new IllegalStateException(Str.fmt(errMsg, errMsgArgs));
         }
 
-        if (isNull(errMsg)) {
-            errMsg = "Unexpected null value.";
+        return val;
+    }
+
+    private static <T> T throwIf(boolean failed, T val, String errMsg, @Nullable Object errMsgArg) {
+
+        if (failed) {
+            // Treat a lone Object[] like varargs would: it's the args, not one arg.
+            Object[] args = errMsgArg instanceof Object[] ? (Object[]) errMsgArg : new Object[] { errMsgArg };
+            throw new IllegalStateException(Str.fmt(errMsg, args));
         }
 
-        throw new IllegalStateException(
-            isEmpty(errMsgArgs) ? errMsg : String.format(errMsg, errMsgArgs)
-        );
+        return val;
     }
 
-    public static <T> T throwIfNull(T obj) {
-        return throwIfNull(obj, null);
+    private static <T> T throwIf(boolean failed, T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+
+        if (failed) {
+            throw new IllegalStateException(Str.fmt(errMsg, new Object[] { errMsgArg1, errMsgArg2 }));
+        }
+
+        return val;
+    }
+
+    private static <T> T throwIf(boolean failed, T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+
+        if (failed) {
+            throw new IllegalStateException(Str.fmt(errMsg, new Object[] { errMsgArg1, errMsgArg2, errMsgArg3 }));
+        }
+
+        return val;
+    }
+
+    private static <T> T throwIf(boolean failed, T val, @Nullable Supplier<String> errMsg, String defaultMsg) {
+
+        if (failed) {
+            throw new IllegalStateException(errMsg == null ? defaultMsg : errMsg.get());
+        }
+
+        return val;
     }
 
     public static boolean anyNull(Object... objs) {
@@ -105,14 +185,30 @@ public class Val {
 
     /**
      * Returns true if the string is null, an empty string, or contains only blank characters.
+     * Blank means the same as for trim(): any char up to and including a space.
      */
     public static boolean isEmpty(String val) {
+        return isEmpty((CharSequence) val);
+    }
+
+    /**
+     * Returns true if the chars are null, empty, or only blank characters.
+     * Works on StringBuilders, CharBuffers, etc. without turning them into Strings.
+     */
+    public static boolean isEmpty(CharSequence val) {
 
-        if (val == null || val.trim().isEmpty()) {
+        if (val == null) {
             return true;
         }
 
-        return false;
+        // Same as trim().isEmpty(), without creating the trimmed string.
+        for (int i = 0; i < val.length(); i++) {
+            if (val.charAt(i) > ' ') {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     public static boolean isEmpty(Map<?, ?> val) {
@@ -138,6 +234,17 @@ public class Val {
         return false;
     }
 
+    public static boolean anyEmpty(CharSequence... vals) {
+
+        for (CharSequence val : vals) {
+            if (isEmpty(val)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public static boolean allEmpty(String... vals) {
 
         for (String val : vals) {
@@ -149,10 +256,25 @@ public class Val {
         return true;
     }
 
+    public static boolean allEmpty(CharSequence... vals) {
+
+        for (CharSequence val : vals) {
+            if (notEmpty(val)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public static boolean notEmpty(String val) {
         return !isEmpty(val);
     }
 
+    public static boolean notEmpty(CharSequence val) {
+        return !isEmpty(val);
+    }
+
     public static boolean notEmpty(Map<?, ?> val) {
         return !isEmpty(val);
     }
@@ -176,6 +298,17 @@ public class Val {
         return false;
     }
 
+    public static boolean anyNotEmpty(CharSequence... vals) {
+
+        for (CharSequence val : vals) {
+            if (notEmpty(val)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     public static boolean allNotEmpty(String... vals) {
 
         for (String val : vals) {
@@ -187,6 +320,17 @@ public class Val {
         return true;
     }
 
+    public static boolean allNotEmpty(CharSequence... vals) {
+
+        for (CharSequence val : vals) {
+            if (isEmpty(val)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Returns the first arg that is not empty (null or empty).
      */
@@ -194,6 +338,13 @@ public class Val {
         return isEmpty(val) ? useIfEmpty : val;
     }
 
+    /**
+     * Returns the first arg that is not empty (null or empty).
+     */
+    public static <T extends CharSequence> T firstNotEmpty(T val, T useIfEmpty) {
+        return isEmpty(val) ? useIfEmpty : val;
+    }
+
     /**
      * Returns the first arg that is not empty (null or empty).
      */
@@ -255,61 +406,33 @@ public class Val {
         return anyInvalid(false, args);
     }
 
+    /**
+     * Returns true if the arg is null or invalid, based on its type.
+     * Strings can't be empty, collections / maps / iterables / arrays can't be empty, files / paths must exist.
+     * Add checks for your own types with {@link #registerValidator(Class, Predicate)}.
+     */
     public static boolean isInvalid(Object arg) {
+        return !Validators.isValid(arg);
+    }
 
-        // Validate what "invalid" is based on type.
-
-        if (arg == null) {
-
-            return true;
-
-        } else if (arg instanceof Path) {
-
-            // Path is an Iterable, so this check goes way up here.
-            if (Files.notExists((Path) arg)) {
-                return true;
-            }
-
-        } else if (arg instanceof File) {
-
-            if (!((File) arg).exists()) {
-                return true;
-            }
-
-        } else if (arg instanceof Collection<?>) {
-
-            if (((Collection<?>) arg).isEmpty()) {
-                return true;
-            }
-
-        } else if (arg instanceof Iterable) {
-
-            Iterable<?> iter = (Iterable<?>) arg;
-            if (!iter.iterator().hasNext()) {
-                return true;
-            }
-
-        } else if (arg.getClass().isArray()) {
-
-            if (Array.getLength(arg) == 0) {
-                return true;
-            }
-
-        } else if (arg instanceof Map<?, ?>) {
-
-            if (((Map<?, ?>) arg).isEmpty()) {
-                return true;
-            }
-
-        } else if (arg instanceof String) {
-
-            if (isEmpty((String) arg)) {
-                return true;
-            }
-        }
+    /**
+     * Tell isInvalid() / throwIfAnyInvalid() etc. how to validate [type] and its subtypes.
+     * [validator] returns true if the (non-null) value is valid. Replaces any validator already
+     * registered for [type], and wins over the built-in checks.
+     *
+     *   Val.registerValidator(OrderId.class, id -> id.value() > 0);
+     *
+     * Register at startup: each registration clears the per-type lookup cache.
+     */
+    public static <T> void registerValidator(Class<T> type, Predicate<? super T> validator) {
+        Validators.register(type, validator);
+    }
 
-        // Everything looks good.
-        return false;
+    /**
+     * Go back to the built-in validation for [type].
+     */
+    public static void unregisterValidator(Class<?> type) {
+        Validators.unregister(type);
     }
 
     public static void throwIfAnyInvalid(Object... args) {
@@ -329,371 +452,399 @@ public class Val {
         return !anyInvalid(args);
     }
 
-    private static final int MAX_DEPTH_DEBUG = 1;
+    // Never changed, so safe to share.
+    private static final DebugRenderer DEBUG_RENDERER = new DebugRenderer();
 
+    /**
+     * Simple toString() on any object. Will try to glean as much info as possible.
+     * Collections / maps / arrays show their class, size, and elements, one level deep.
+     * Big ones are cut short; see {@link DebugRenderer} for the limits, or to change them.
+     */
     public static String toDebugStr(Object obj) {
-        return debug(obj, 0);
+        return DEBUG_RENDERER.render(obj);
     }
 
     /**
-     * Simple toString() on any object. Will try to glean as much info as possible.
+     * Same as {@link #toDebugStr(Object)}, but appends to [out], so there's no String in between.
      */
-    private static String debug(Object... args) {
-
-        if (args == null || args.length == 0) {
-            return "null";
-        }
-
-        int len = args.length;
-
-        if (len == 1) {
-            return debug(args[0], 0);
-        }
-
-        List<String> parts = new LinkedList<>();
-
-        for (int i = 0; i < len; i++) {
-
-            parts.add(String.format("%d/%d=%s",
-                i + 1,
-                len,
-                debug(args[i], 0)));
-        }
-
-        return String.join("|", parts);
+    public static StringBuilder toDebugStr(Object obj, StringBuilder out) {
+        return DEBUG_RENDERER.render(obj, out);
     }
 
-    private static String debug(Object arg, int depth) {
-
-        // Don't go too deep.
-        boolean maxDeep = depth >= MAX_DEPTH_DEBUG;
-
-        String argClassName = arg == null ? "null" : arg.getClass().getSimpleName();
-
-        // Format based on type.
-
-        if (arg == null) {
-
-            return "null";
-
-        } else if (arg instanceof Path) {
-
-            // Path is an Iterable, so this check goes way up here.
-            return ((Path) arg).toAbsolutePath().toString();
-
-        } else if (arg instanceof File) {
-
-            return ((File) arg).getAbsolutePath();
-
-        } else if (arg instanceof Collection<?>) {
-
-            Collection<?> coll = (Collection<?>) arg;
-
-            if (coll.isEmpty()) {
-                return "[]";
-            }
+    /**
+     * Tell toDebugStr() / {@link DebugRenderer} how to write [type] and its subtypes,
+     * e.g. instead of calling an expensive toString(). Also used for elements of collections, maps, and arrays.
+     * Replaces any formatter already registered for [type], and wins over the built-in formats.
+     *
+     *   Val.registerDebugFormatter(Order.class, (order, out) -> out.append("Order#").append(order.id()));
+     *
+     * Register at startup: each registration clears the per-type lookup cache.
+     */
+    public static <T> void registerDebugFormatter(Class<T> type, DebugRenderer.Formatter<? super T> formatter) {
+        DebugRenderer.registerFormatter(type, formatter);
+    }
 
-            if (maxDeep) {
+    /**
+     * Go back to the built-in format for [type].
+     */
+    public static void unregisterDebugFormatter(Class<?> type) {
+        DebugRenderer.unregisterFormatter(type);
+    }
 
-                return String.format("[%s:%d]", argClassName, coll.size());
+    public static boolean isTrue(Object obj) {
 
-            } else {
+        if (obj == null) {
 
-                List<String> elems = coll.stream()
-                    .map(c -> debug(c, depth + 1))
-                    .collect(Collectors.toList());
+            return false;
 
-                return String.format("[%s:%d=%s]",
-                    argClassName,
-                    coll.size(),
-                    String.join(",", elems));
-            }
+        } else if (obj instanceof Boolean) {
 
-        } else if (arg instanceof Iterable) {
+            return (Boolean) obj;
 
-            Iterable<?> iter = (Iterable<?>) arg;
-            if (!iter.iterator().hasNext()) {
-                return "[]";
-            }
+        } else {
+            return !isInvalid(obj);
+        }
+    }
 
-            if (maxDeep) {
+    public static boolean isFalse(Object obj) {
+        return !isTrue(obj);
+    }
 
-                int size = 0;
+    public static String throwIfEmpty(String val, String errMsg, Object... errMsgArgs) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArgs);
+    }
 
-                for (Object o : iter) {
-                    size++;
-                }
+    public static String throwIfEmpty(String val, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg);
+    }
 
-                return String.format("[%s:%d]", argClassName, size);
+    public static String throwIfEmpty(String val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-            } else {
+    public static String throwIfEmpty(String val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-                List<String> elems = new LinkedList<>();
+    public static String throwIfEmpty(String val, @Nullable Supplier<String> errMsg) {
+        return throwIf(isEmpty(val), val, errMsg, EMPTY_MSG);
+    }
 
-                int size = 0;
+    public static String throwIfEmpty(String val) {
+        return throwIfEmpty(val, (Supplier<String>) null);
+    }
 
-                for (Object o : iter) {
-                    size++;
-                    elems.add(debug(o, depth + 1));
-                }
+    public static <T extends CharSequence> T throwIfEmpty(T val, String errMsg, Object... errMsgArgs) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArgs);
+    }
 
-                return String.format("[%s:%d=%s]",
-                    argClassName,
-                    size,
-                    String.join(",", elems));
-            }
+    public static <T extends CharSequence> T throwIfEmpty(T val, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg);
+    }
 
-        } else if (arg.getClass().isArray()) {
+    public static <T extends CharSequence> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-            int len = Array.getLength(arg);
+    public static <T extends CharSequence> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-            if (len == 0) {
-                return "[]";
-            }
+    public static <T extends CharSequence> T throwIfEmpty(T val, @Nullable Supplier<String> errMsg) {
+        return throwIf(isEmpty(val), val, errMsg, EMPTY_MSG);
+    }
 
-            if (maxDeep) {
+    public static <T extends CharSequence> T throwIfEmpty(T val) {
+        return throwIfEmpty(val, (Supplier<String>) null);
+    }
 
-                return String.format("[%s:%d]", argClassName, len);
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val, String errMsg, Object... errMsgArgs) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArgs);
+    }
 
-            } else {
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg);
+    }
 
-                List<String> elems = new LinkedList<>();
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-                for (int i = 0; i < len; i++) {
-                    elems.add(debug(Array.get(arg, i), depth + 1));
-                }
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-                return String.format("[%s:%d=%s]",
-                    argClassName,
-                    len,
-                    String.join(",", elems));
-            }
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val, @Nullable Supplier<String> errMsg) {
+        return throwIf(isEmpty(val), val, errMsg, EMPTY_MSG);
+    }
 
-        } else if (arg instanceof Map<?, ?>) {
+    public static <T extends Map<?, ?>> T throwIfEmpty(T val) {
+        return throwIfEmpty(val, (Supplier<String>) null);
+    }
 
-            Map<?, ?> map = (Map<?, ?>) arg;
+    public static <T extends Collection<?>> T throwIfEmpty(T val, String errMsg, Object... errMsgArgs) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArgs);
+    }
 
-            if (map.isEmpty()) {
-                return "[]";
-            }
+    public static <T extends Collection<?>> T throwIfEmpty(T val, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg);
+    }
 
-            if (maxDeep) {
+    public static <T extends Collection<?>> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-                return String.format("[%s:%d]", argClassName, map.size());
+    public static <T extends Collection<?>> T throwIfEmpty(T val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-            } else {
+    public static <T extends Collection<?>> T throwIfEmpty(T val, @Nullable Supplier<String> errMsg) {
+        return throwIf(isEmpty(val), val, errMsg, EMPTY_MSG);
+    }
 
-                List<String> elems = new LinkedList<>();
+    public static <T extends Collection<?>> T throwIfEmpty(T val) {
+        return throwIfEmpty(val, (Supplier<String>) null);
+    }
 
-                for (Entry<?, ?> entry : map.entrySet()) {
+    public static <T> T[] throwIfEmpty(T[] val, String errMsg, Object... errMsgArgs) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArgs);
+    }
 
-                    Object key = entry.getKey();
-                    Object val = entry.getValue();
-                    elems.add(String.format("%s:%s", debug(key, depth + 1), debug(val, depth + 1)));
-                }
+    public static <T> T[] throwIfEmpty(T[] val, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg);
+    }
 
-                return String.format("[%s:%d=%s]",
-                    argClassName,
-                    map.size(),
-                    String.join(",", elems));
-            }
+    public static <T> T[] throwIfEmpty(T[] val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-        } else if (isPrimitive(arg)) {
+    public static <T> T[] throwIfEmpty(T[] val, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(isEmpty(val), val, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-            return String.valueOf(arg);
+    public static <T> T[] throwIfEmpty(T[] val, @Nullable Supplier<String> errMsg) {
+        return throwIf(isEmpty(val), val, errMsg, EMPTY_MSG);
+    }
 
-        } else if (arg instanceof String) {
+    public static <T> T[] throwIfEmpty(T[] val) {
+        return throwIfEmpty(val, (Supplier<String>) null);
+    }
 
-            // We already know it's not null, so just wrap it.
-            return String.format("\"%s\"", arg);
+    ////////////////////////////////////////////////////////////////////////////////
+    // EXISTS (FILES AND PATHS):
 
-        } else {
+    // Null means always ask the file system.
+    @Nullable
+    private static volatile ExistsCache existsCache;
 
-            // Probably a custom class.
-            return arg.toString();
-        }
+    /**
+     * Answer exists() / notExists() / isInvalid() etc. on paths and files from [cache],
+     * instead of asking the file system every time. Pass null to stop caching.
+     * Off by default, since cached answers can be out of date by up to the cache's TTL.
+     */
+    public static void useExistsCache(@Nullable ExistsCache cache) {
+        existsCache = cache;
     }
 
     /**
-     * Returns true if the arg is a primitive type.
+     * The cache set by {@link #useExistsCache(ExistsCache)}, or null if there isn't one.
      */
-    private static boolean isPrimitive(Object arg) {
+    @Nullable
+    public static ExistsCache existsCache() {
+        return existsCache;
+    }
 
-        if (arg == null) {
-            return false;
-        }
+    public static boolean exists(Path path) {
 
-        if (arg.getClass().isPrimitive()) {
-            return true;
+        if (isNull(path)) {
+            return false;
         }
 
-        return
-            arg instanceof Boolean ||
-                arg instanceof Character ||
-                arg instanceof Byte ||
-                arg instanceof Short ||
-                arg instanceof Integer ||
-                arg instanceof Long ||
-                arg instanceof Float ||
-                arg instanceof Double;
+        ExistsCache cache = existsCache;
+        return cache == null ? Files.exists(path) : cache.exists(path);
     }
 
-    public static boolean isTrue(Object obj) {
-
-        if (obj == null) {
+    public static boolean exists(File file) {
 
+        if (isNull(file)) {
             return false;
-
-        } else if (obj instanceof Boolean) {
-
-            return (Boolean) obj;
-
-        } else {
-            return !isInvalid(obj);
         }
-    }
 
-    public static boolean isFalse(Object obj) {
-        return !isTrue(obj);
+        ExistsCache cache = existsCache;
+        return cache == null ? file.exists() : cache.exists(file);
     }
 
-    public static String throwIfEmpty(String val, String errMsg, Object... errMsgArgs) {
+    /**
+     * Returns true if the path is null or doesn't exist.
+     * Uncached, a file we can't tell about (e.g. no permission) isn't counted as missing.
+     */
+    public static boolean notExists(Path path) {
 
-        if (isEmpty(val)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
+        if (isNull(path)) {
+            return true;
         }
 
-        return val;
+        ExistsCache cache = existsCache;
+        return cache == null ? Files.notExists(path) : !cache.exists(path);
     }
 
-    public static String throwIfEmpty(String val) {
-        return throwIfEmpty(val, "Empty value.");
+    public static boolean notExists(File file) {
+        return !exists(file);
     }
 
-    public static <T extends Map<?, ?>> T throwIfEmpty(T val, String errMsg, Object... errMsgArgs) {
+    /**
+     * Returns the indexes (in iteration order) of the paths that are null or don't exist.
+     * The checks are spread across [executor], and paths that share a directory are
+     * checked with one listing of the directory instead of a stat() each, when that's cheaper.
+     * (So a broken symlink may count as existing here, though {@link #exists(Path)} says it doesn't.)
+     *
+     *   BitSet missing = Val.findMissing(inputs, ioPool);
+     *   missing.stream().forEach(i -> log.warn("Missing: {}", inputs.get(i)));
+     */
+    public static BitSet findMissing(Collection<Path> paths, Executor executor) {
+        return BulkExists.findMissing(paths, executor);
+    }
 
-        if (isEmpty(val)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    /**
+     * Same as {@link #findMissing(Collection, Executor)}, on the common ForkJoinPool.
+     */
+    public static BitSet findMissing(Collection<Path> paths) {
+        return BulkExists.findMissing(paths, ForkJoinPool.commonPool());
+    }
 
-        return val;
+    /**
+     * Returns true if every path exists. See {@link #findMissing(Collection, Executor)}.
+     */
+    public static boolean existsAll(Collection<Path> paths, Executor executor) {
+        return findMissing(paths, executor).isEmpty();
     }
 
-    public static <T extends Map<?, ?>> T throwIfEmpty(T val) {
-        return throwIfEmpty(val, "Empty value.");
+    public static boolean existsAll(Collection<Path> paths) {
+        return findMissing(paths).isEmpty();
     }
 
-    public static <T extends Collection<?>> T throwIfEmpty(T val, String errMsg, Object... errMsgArgs) {
+    /**
+     * Split the paths into those that exist (under true) and those that don't (under false),
+     * keeping their order. Like Collectors.partitioningBy(Val::exists), but in bulk.
+     * See {@link #findMissing(Collection, Executor)}.
+     */
+    public static Map<Boolean, List<Path>> partitionExisting(Collection<Path> paths, Executor executor) {
+
+        BitSet missing = findMissing(paths, executor);
+        List<Path> existing = new ArrayList<>(paths.size() - missing.cardinality());
+        List<Path> notExisting = new ArrayList<>(missing.cardinality());
+        int index = 0;
 
-        if (isEmpty(val)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
+        for (Path path : paths) {
+            (missing.get(index++) ? notExisting : existing).add(path);
         }
 
-        return val;
+        Map<Boolean, List<Path>> partition = new HashMap<>(4);
+        partition.put(true, existing);
+        partition.put(false, notExisting);
+        return partition;
     }
 
-    public static <T extends Collection<?>> T throwIfEmpty(T val) {
-        return throwIfEmpty(val, "Empty value.");
+    public static Map<Boolean, List<Path>> partitionExisting(Collection<Path> paths) {
+        return partitionExisting(paths, ForkJoinPool.commonPool());
     }
 
-    public static <T> T[] throwIfEmpty(T[] val, String errMsg, Object... errMsgArgs) {
-
-        if (isEmpty(val)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    public static Path throwIfExists(Path path, String errMsg, Object... errMsgArgs) {
+        return throwIf(exists(path), path, errMsg, errMsgArgs);
+    }
 
-        return val;
+    public static Path throwIfExists(Path path, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(exists(path), path, errMsg, errMsgArg);
     }
 
-    public static <T> T[] throwIfEmpty(T[] val) {
-        return throwIfEmpty(val, "Empty value.");
+    public static Path throwIfExists(Path path, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(exists(path), path, errMsg, errMsgArg1, errMsgArg2);
     }
 
-    ////////////////////////////////////////////////////////////////////////////////
-    // EXISTS (FILES AND PATHS):
+    public static Path throwIfExists(Path path, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(exists(path), path, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-    public static boolean exists(Path path) {
-        return notNull(path) && Files.exists(path);
+    public static Path throwIfExists(Path path, @Nullable Supplier<String> errMsg) {
+        return throwIf(exists(path), path, errMsg, EXISTS_MSG);
     }
 
-    public static boolean exists(File file) {
-        return notNull(file) && file.exists();
+    public static File throwIfExists(File file, String errMsg, Object... errMsgArgs) {
+        return throwIf(exists(file), file, errMsg, errMsgArgs);
     }
 
-    public static boolean notExists(Path path) {
-        return isNull(path) || Files.notExists(path);
+    public static File throwIfExists(File file, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(exists(file), file, errMsg, errMsgArg);
     }
 
-    public static boolean notExists(File file) {
-        return isNull(file) || !file.exists();
+    public static File throwIfExists(File file, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(exists(file), file, errMsg, errMsgArg1, errMsgArg2);
     }
 
-    public static Path throwIfExists(Path path, String errMsg, Object... errMsgArgs) {
+    public static File throwIfExists(File file, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(exists(file), file, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-        if (exists(path)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    public static File throwIfExists(File file, @Nullable Supplier<String> errMsg) {
+        return throwIf(exists(file), file, errMsg, EXISTS_MSG);
+    }
 
-        return path;
+    public static Path throwNotExists(Path path, String errMsg, Object... errMsgArgs) {
+        return throwIf(notExists(path), path, errMsg, errMsgArgs);
     }
 
-    public static File throwIfExists(File file, String errMsg, Object... errMsgArgs) {
+    public static Path throwNotExists(Path path, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(notExists(path), path, errMsg, errMsgArg);
+    }
 
-        if (exists(file)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    public static Path throwNotExists(Path path, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(notExists(path), path, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-        return file;
+    public static Path throwNotExists(Path path, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(notExists(path), path, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
     }
 
-    public static Path throwNotExists(Path path, String errMsg, Object... errMsgArgs) {
+    public static Path throwNotExists(Path path, @Nullable Supplier<String> errMsg) {
+        return throwIf(notExists(path), path, errMsg, NOT_EXISTS_MSG);
+    }
 
-        if (notExists(path)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    public static File throwNotExists(File file, String errMsg, Object... errMsgArgs) {
+        return throwIf(notExists(file), file, errMsg, errMsgArgs);
+    }
 
-        return path;
+    public static File throwNotExists(File file, String errMsg, @Nullable Object errMsgArg) {
+        return throwIf(notExists(file), file, errMsg, errMsgArg);
     }
 
-    public static File throwNotExists(File file, String errMsg, Object... errMsgArgs) {
+    public static File throwNotExists(File file, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2) {
+        return throwIf(notExists(file), file, errMsg, errMsgArg1, errMsgArg2);
+    }
 
-        if (notExists(file)) {
-            throw new IllegalStateException(
-                isEmpty(errMsgArgs) ?
-                    errMsg :
-                    String.format(errMsg, errMsgArgs)
-            );
-        }
+    public static File throwNotExists(File file, String errMsg,
+        @Nullable Object errMsgArg1, @Nullable Object errMsgArg2, @Nullable Object errMsgArg3) {
+        return throwIf(notExists(file), file, errMsg, errMsgArg1, errMsgArg2, errMsgArg3);
+    }
 
-        return file;
+    public static File throwNotExists(File file, @Nullable Supplier<String> errMsg) {
+        return throwIf(notExists(file), file, errMsg, NOT_EXISTS_MSG);
     }
 
     ////////////////////////////////////////////////////////////////////////////////
@@ -979,6 +1130,7 @@ public class Val {
      * Returns true if [text] contains [findStr]. Ignores case.
      * If either arg is null, returns false.
      * Better than {@link String#contains(CharSequence)} in that this version handles nulls for either arg.
+     * Chars are compared one at a time, like {@link String#equalsIgnoreCase(String)}, so nothing is allocated.
      */
     public static boolean containsIgnoreCase(String text, String findStr) {
 
@@ -987,7 +1139,7 @@ public class Val {
             return false;
         }
 
-        return text.toLowerCase().contains(findStr.toLowerCase());
+        return Str.containsIgnoreCase(text, findStr);
     }
 
     public static boolean notContainsIgnoreCase(String text, String findStr) {
@@ -1006,6 +1158,11 @@ public class Val {
             return false;
         }
 
+        // Precompiled needles can answer in a single pass.
+        if (findStrs instanceof NeedleSet && !((NeedleSet) findStrs).isIgnoreCase()) {
+            return ((NeedleSet) findStrs).containsAny(text);
+        }
+
         for (String findStr : findStrs) {
             if (contains(text, findStr)) {
                 return true;
@@ -1027,6 +1184,36 @@ public class Val {
         return notContainsAny(text, Arrays.asList(findStrs));
     }
 
+    /**
+     * Same as {@link #containsAnyIgnoreCase(String, String...)}.
+     * Pass a set from {@link #compileNeedlesIgnoreCase(String...)} to check every needle in one pass.
+     */
+    public static boolean containsAnyIgnoreCase(String text, Collection<String> findStrs) {
+
+        // Null contains nothing.
+        if (text == null || findStrs == null || findStrs.isEmpty()) {
+            return false;
+        }
+
+        // Precompiled needles can answer in a single pass.
+        if (findStrs instanceof NeedleSet && ((NeedleSet) findStrs).isIgnoreCase()) {
+            return ((NeedleSet) findStrs).containsAny(text);
+        }
+
+        for (String findStr : findStrs) {
+
+            if (findStr == null) {
+                continue;
+            }
+
+            if (Str.containsIgnoreCase(text, findStr)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Returns true if [text] contains any of the [findStrs]. Ignores case.
      * If either arg is null, returns false.
@@ -1039,15 +1226,14 @@ public class Val {
             return false;
         }
 
-        String lowerText = text.toLowerCase();
-
+        // Loop over the array directly, so no List / Iterator gets allocated.
         for (String findStr : findStrs) {
 
             if (findStr == null) {
                 continue;
             }
 
-            if (contains(lowerText, findStr.toLowerCase())) {
+            if (Str.containsIgnoreCase(text, findStr)) {
                 return true;
             }
         }
@@ -1055,6 +1241,10 @@ public class Val {
         return false;
     }
 
+    public static boolean notContainsAnyIgnoreCase(String text, Collection<String> findStrs) {
+        return !containsAnyIgnoreCase(text, findStrs);
+    }
+
     public static boolean notContainsAnyIgnoreCase(String text, String... findStrs) {
         return !containsAnyIgnoreCase(text, findStrs);
     }
@@ -1090,7 +1280,7 @@ public class Val {
             return false;
         }
 
-        return text.toLowerCase().endsWith(findStr.toLowerCase());
+        return Str.endsWithIgnoreCase(text, findStr);
     }
 
     public static boolean notEndsWithIgnoreCase(String text, String findStr) {
@@ -1142,15 +1332,13 @@ public class Val {
             return false;
         }
 
-        String lowerText = text.toLowerCase();
-
         for (String findStr : findStrs) {
 
             if (findStr == null) {
                 continue;
             }
 
-            if (endsWith(lowerText, findStr.toLowerCase())) {
+            if (Str.endsWithIgnoreCase(text, findStr)) {
                 return true;
             }
         }
@@ -1167,13 +1355,18 @@ public class Val {
      * If either arg is null, returns false.
      * Better than {@link String#contains(CharSequence)} in that this version handles nulls for either arg.
      */
-    public static boolean containsAll(String text, String... findStrs) {
+    public static boolean containsAll(String text, Collection<String> findStrs) {
 
         // Null contains nothing.
-        if (text == null || findStrs == null || findStrs.length == 0) {
+        if (text == null || findStrs == null || findStrs.isEmpty()) {
             return false;
         }
 
+        // Precompiled needles can answer in a single pass.
+        if (findStrs instanceof NeedleSet && !((NeedleSet) findStrs).isIgnoreCase()) {
+            return ((NeedleSet) findStrs).containsAll(text);
+        }
+
         for (String findStr : findStrs) {
             if (!contains(text, findStr)) {
                 return false;
@@ -1183,10 +1376,48 @@ public class Val {
         return true;
     }
 
+    public static boolean containsAll(String text, String... findStrs) {
+        return findStrs != null && containsAll(text, Arrays.asList(findStrs));
+    }
+
+    public static boolean notContainsAll(String text, Collection<String> findStrs) {
+        return !containsAll(text, findStrs);
+    }
+
     public static boolean notContainsAll(String text, String... findStrs) {
         return !containsAll(text, findStrs);
     }
 
+    /**
+     * Same as {@link #containsAllIgnoreCase(String, String...)}.
+     * Pass a set from {@link #compileNeedlesIgnoreCase(String...)} to check every needle in one pass.
+     */
+    public static boolean containsAllIgnoreCase(String text, Collection<String> findStrs) {
+
+        // Null contains nothing.
+        if (text == null || findStrs == null || findStrs.isEmpty()) {
+            return false;
+        }
+
+        // Precompiled needles can answer in a single pass.
+        if (findStrs instanceof NeedleSet && ((NeedleSet) findStrs).isIgnoreCase()) {
+            return ((NeedleSet) findStrs).containsAll(text);
+        }
+
+        for (String findStr : findStrs) {
+
+            if (findStr == null) {
+                continue;
+            }
+
+            if (!Str.containsIgnoreCase(text, findStr)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     /**
      * Returns true if [text] contains all of the [findStrs]. Ignores case.
      * If either arg is null, returns false.
@@ -1199,15 +1430,14 @@ public class Val {
             return false;
         }
 
-        String lowerText = text.toLowerCase();
-
+        // Loop over the array directly, so no List / Iterator gets allocated.
         for (String findStr : findStrs) {
 
             if (findStr == null) {
                 continue;
             }
 
-            if (!contains(lowerText, findStr.toLowerCase())) {
+            if (!Str.containsIgnoreCase(text, findStr)) {
                 return false;
             }
         }
@@ -1215,13 +1445,56 @@ public class Val {
         return true;
     }
 
+    public static boolean notContainsAllIgnoreCase(String text, Collection<String> findStrs) {
+        return !containsAllIgnoreCase(text, findStrs);
+    }
+
     public static boolean notContainsAllIgnoreCase(String text, String... findStrs) {
         return !containsAllIgnoreCase(text, findStrs);
     }
 
+    /**
+     * Precompile a set of strings to search for, for when you search for the same strings over and over.
+     * The result answers containsAny / containsAll / findAll in one pass over the text,
+     * no matter how many strings you're looking for. It's immutable and thread-safe, so keep it around.
+     * It's also a {@link Collection}, so you can hand it to {@link #containsAny(String, Collection)}
+     * and {@link #containsAll(String, Collection)}.
+     */
+    public static NeedleSet compileNeedles(Collection<String> findStrs) {
+        return NeedleSet.of(findStrs);
+    }
+
+    /**
+     * Precompile a set of strings to search for. See {@link #compileNeedles(Collection)}.
+     */
+    public static NeedleSet compileNeedles(String... findStrs) {
+        return NeedleSet.of(findStrs);
+    }
+
+    /**
+     * Precompile a set of strings to search for, ignoring case.
+     * Use with {@link #containsAnyIgnoreCase(String, Collection)} and {@link #containsAllIgnoreCase(String, Collection)},
+     * or call its methods directly. Needles are case-folded once, here, instead of on every search.
+     */
+    public static NeedleSet compileNeedlesIgnoreCase(Collection<String> findStrs) {
+        return NeedleSet.ofIgnoreCase(findStrs);
+    }
+
+    /**
+     * Precompile a set of strings to search for, ignoring case. See {@link #compileNeedlesIgnoreCase(Collection)}.
+     */
+    public static NeedleSet compileNeedlesIgnoreCase(String... findStrs) {
+        return NeedleSet.ofIgnoreCase(findStrs);
+    }
+
     ////////////////////////////////////////////////////////////////////////////////
     // Contains words - regex.
 
+    /**
+     * Returns true if [text] contains matches for all of the [findPats].
+     * If [findPats] is a {@link RegexSet}, e.g. from {@link #boundWords(String...)}, the text is scanned once
+     * for all of them, instead of once per pattern.
+     */
     public static boolean containsAllRegex(String text, Set<Pattern> findPats) {
 
         // Null contains nothing.
@@ -1229,6 +1502,10 @@ public class Val {
             return false;
         }
 
+        if (findPats instanceof RegexSet) {
+            return ((RegexSet) findPats).containsAll(text);
+        }
+
         for (Pattern findPat : findPats) {
 
             boolean foundMatch = findPat.matcher(text).find();
@@ -1245,6 +1522,11 @@ public class Val {
         return !containsAllRegex(text, findPats);
     }
 
+    /**
+     * Returns true if [text] contains a match for any of the [findPats].
+     * If [findPats] is a {@link RegexSet}, e.g. from {@link #boundWords(String...)}, the text is scanned once
+     * for all of them, instead of once per pattern.
+     */
     public static boolean containsAnyRegex(String text, Set<Pattern> findPats) {
 
         // Null contains nothing.
@@ -1252,6 +1534,10 @@ public class Val {
             return false;
         }
 
+        if (findPats instanceof RegexSet) {
+            return ((RegexSet) findPats).containsAny(text);
+        }
+
         for (Pattern findPat : findPats) {
 
             boolean foundMatch = findPat.matcher(text).find();
@@ -1290,7 +1576,8 @@ public class Val {
      * Well now you can: containsRegex(text, boundWords("cat")).
      * You can also make this nice and performant by reusing.
      * @param words strings of words to turn bind with regex - special regex chars will be escaped, don't worry
-     * @return set of regex patterns with your words, bounded
+     * @return set of regex patterns with your words, bounded - a {@link RegexSet}, so it's searched in one pass.
+     *         It can't be changed; copy it into a new HashSet if you need to add to it
      */
     private static Set<Pattern> bindRegexWords(boolean ignoreCase, String... words) {
 
@@ -1300,10 +1587,10 @@ public class Val {
 
         int flags = ignoreCase ? Pattern.CASE_INSENSITIVE : 0;
 
-        return Arrays.stream(words)                                      // For each word
+        return RegexSet.of(Arrays.stream(words)                          // For each word
             .map(Val::escapeRegex)                                       // Escape special chars
             .map(r -> Pattern.compile("\\b" + r + "\\b", flags))   // Then add word boundaries
-            .collect(Collectors.toSet());                                // And collect as a set
+            .collect(Collectors.toList()));                              // And merge into a set
     }
 
     /**
@@ -1314,7 +1601,8 @@ public class Val {
      * Well now you can: containsRegex(text, boundWords("cat")).
      * You can also make this nice and performant by reusing.
      * @param words strings of words to turn bind with regex - special regex chars will be escaped, don't worry
-     * @return set of regex patterns with your words, bounded
+     * @return set of regex patterns with your words, bounded - a {@link RegexSet}, so it's searched in one pass.
+     *         It can't be changed; copy it into a new HashSet if you need to add to it
      */
     public static Set<Pattern> boundWords(String... words) {
         return bindRegexWords(false, words);
@@ -1328,7 +1616,8 @@ public class Val {
      * Well now you can: containsRegex(text, boundWords("cat")).
      * You can also make this nice and performant by reusing.
      * @param words strings of words to turn bind with regex - special regex chars will be escaped, don't worry
-     * @return set of regex patterns with your words, bounded
+     * @return set of regex patterns with your words, bounded - a {@link RegexSet}, so it's searched in one pass.
+     *         It can't be changed; copy it into a new HashSet if you need to add to it
      */
     public static Set<Pattern> boundWordsIgnoreCase(String... words) {
         return bindRegexWords(true, words);
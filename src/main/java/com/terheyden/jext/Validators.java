@@ -0,0 +1,98 @@
+package com.terheyden.jext;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Decides what "valid" means for each type, for {@link Val#isInvalid(Object)} and friends.
+ *
+ * The check for a class is worked out once, the first time we see it, and cached (see {@link TypeRegistry}).
+ * After that, validating an arg is one lookup plus the check itself, instead of
+ * walking an instanceof chain and reflecting on arrays every time.
+ *
+ * Validators registered with {@link Val#registerValidator(Class, Predicate)} win over the built-in checks.
+ */
+@ParametersAreNonnullByDefault
+final class Validators {
+
+    // Anything we don't know about is valid, as long as it's not null.
+    private static final Predicate<Object> ALWAYS_VALID = obj -> true;
+
+    private static final TypeRegistry<Predicate<Object>> validators = new TypeRegistry<>(Validators::builtIn);
+
+    private Validators() {
+        // Private since this class shouldn't be instantiated.
+    }
+
+    /**
+     * Return true if [obj] is valid: not null, and passes the check for its type.
+     */
+    static boolean isValid(Object obj) {
+        return obj != null && validators.get(obj.getClass()).test(obj);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> void register(Class<T> type, Predicate<? super T> validator) {
+        validators.register(type, (Predicate<Object>) validator);
+    }
+
+    static void unregister(Class<?> type) {
+        validators.unregister(type);
+    }
+
+    /**
+     * Work out the built-in check for [type]. Runs once per type.
+     */
+    private static Predicate<Object> builtIn(Class<?> type) {
+
+        // Same order as the old instanceof chain.
+        // Path is an Iterable, so it goes before Iterable.
+        if (Path.class.isAssignableFrom(type)) {
+            return obj -> !Val.notExists((Path) obj);
+        } else if (File.class.isAssignableFrom(type)) {
+            return obj -> Val.exists((File) obj);
+        } else if (Collection.class.isAssignableFrom(type)) {
+            return obj -> !((Collection<?>) obj).isEmpty();
+        } else if (Iterable.class.isAssignableFrom(type)) {
+            return obj -> ((Iterable<?>) obj).iterator().hasNext();
+        } else if (type.isArray()) {
+            return arrayValidator(type.getComponentType());
+        } else if (Map.class.isAssignableFrom(type)) {
+            return obj -> !((Map<?, ?>) obj).isEmpty();
+        } else if (CharSequence.class.isAssignableFrom(type)) {
+            return obj -> !Val.isEmpty((CharSequence) obj);
+        }
+
+        return ALWAYS_VALID;
+    }
+
+    /**
+     * Arrays can't be empty. A cast per primitive type, so we never need Array.getLength().
+     */
+    private static Predicate<Object> arrayValidator(Class<?> componentType) {
+
+        if (!componentType.isPrimitive()) {
+            return obj -> ((Object[]) obj).length > 0;
+        } else if (componentType == int.class) {
+            return obj -> ((int[]) obj).length > 0;
+        } else if (componentType == long.class) {
+            return obj -> ((long[]) obj).length > 0;
+        } else if (componentType == byte.class) {
+            return obj -> ((byte[]) obj).length > 0;
+        } else if (componentType == char.class) {
+            return obj -> ((char[]) obj).length > 0;
+        } else if (componentType == double.class) {
+            return obj -> ((double[]) obj).length > 0;
+        } else if (componentType == float.class) {
+            return obj -> ((float[]) obj).length > 0;
+        } else if (componentType == short.class) {
+            return obj -> ((short[]) obj).length > 0;
+        }
+
+        return obj -> ((boolean[]) obj).length > 0;
+    }
+}
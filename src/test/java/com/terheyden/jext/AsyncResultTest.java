@@ -0,0 +1,133 @@
+package com.terheyden.jext;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class AsyncResultTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void test() {
+
+        Result<Integer> result = AsyncResult.supply(() -> "Mika", pool)
+            .map(String::length)
+            .flatMap(len -> AsyncResult.completed(Result.ok(len * 10), pool))
+            .join();
+
+        assertEquals(Integer.valueOf(40), result.getValue());
+
+        // Exceptions become fails, and skip the rest.
+        Result<Integer> failed = AsyncResult.supply(() -> "Cora", pool)
+            .<String>map(name -> { throw new IOException("Disk gone."); })
+            .map(String::length)
+            .join();
+
+        assertTrue(failed.isFail());
+        assertTrue(failed.getCause() instanceof IOException);
+
+        Result<String> recovered = AsyncResult.<String>completed(Result.fail("Nope."), pool)
+            .recover(fail -> "recovered from " + fail.getMsg())
+            .join();
+
+        assertEquals("recovered from Nope.", recovered.getValue());
+    }
+
+    @Test
+    public void testCombine() {
+
+        AsyncResult<String> name = AsyncResult.supply(() -> "Mika", pool);
+        AsyncResult<Integer> age = AsyncResult.supply(() -> 12, pool);
+        assertEquals("Mika is 12", name.thenCombine(age, (n, a) -> n + " is " + a).join().getValue());
+
+        AsyncResult<Integer> noAge = AsyncResult.completed(Result.fail("No age."), pool);
+        assertEquals("No age.", name.thenCombine(noAge, (n, a) -> n + " is " + a).join().getMsg());
+
+        // The combiner can throw too.
+        Result<String> bad = name
+            .<Integer, String>thenCombine(age, (n, a) -> { throw new IOException("Can't save " + n); })
+            .join();
+        assertEquals("Can't save Mika", bad.getMsg());
+    }
+
+    @Test
+    public void testMany() {
+
+        List<AsyncResult<Integer>> results = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            int num = i;
+            results.add(AsyncResult.supply(() -> num * 2, pool));
+        }
+
+        Result<List<Integer>> all = AsyncResult.allOf(results, pool).join();
+        assertEquals(1000, all.getValue().size());
+        assertEquals(Integer.valueOf(1998), all.getValue().get(999));
+
+        results.add(AsyncResult.completed(Result.fail("Bad one."), pool));
+        assertEquals("Bad one.", AsyncResult.allOf(results, pool).join().getMsg());
+
+        AsyncResult<Integer> bad = AsyncResult.completed(Result.fail("First."), pool);
+        AsyncResult<Integer> worse = AsyncResult.completed(Result.fail("Second."), pool);
+        AsyncResult<Integer> good = AsyncResult.supply(() -> 7, pool);
+
+        assertEquals(Integer.valueOf(7), AsyncResult.anyOf(Arrays.asList(bad, good, worse), pool).join().getValue());
+        assertEquals("First.", AsyncResult.anyOf(Arrays.asList(bad, worse), pool).join().getMsg());
+
+        // A cancelled one still counts, so this doesn't wait forever.
+        AsyncResult<Integer> cancelled = AsyncResult.of(new CompletableFuture<>(), pool);
+        cancelled.toFuture().cancel(false);
+        Result<Integer> none = AsyncResult.anyOf(Arrays.asList(cancelled, bad), pool).join();
+        assertTrue(none.isFail());
+        assertTrue(none.getCause() instanceof CancellationException);
+    }
+
+    @Test
+    public void testFlatMapThrows() {
+
+        // Like map() and recover(), flatMap() takes a function that can throw.
+        Result<Integer> result = AsyncResult.supply(() -> "Mika", pool)
+            .<Integer>flatMap(name -> { throw new IOException("Can't load " + name); })
+            .join();
+
+        assertTrue(result.isFail());
+        assertEquals("Can't load Mika", result.getMsg());
+    }
+
+    @Test
+    public void testFutures() throws Exception {
+
+        CompletableFuture<String> broken = new CompletableFuture<>();
+        broken.completeExceptionally(new IOException("Broken."));
+
+        Result<String> result = AsyncResult.fromFuture(broken, pool).join();
+        assertTrue(result.isFail());
+        assertEquals("Broken.", result.getMsg());
+
+        assertEquals("ok", AsyncResult.fromFuture(CompletableFuture.completedFuture("ok"), pool).toValueFuture().get());
+
+        try {
+            AsyncResult.<String>completed(Result.fail("Nope."), pool).toValueFuture().get();
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("Nope.", e.getCause().getMessage());
+        }
+    }
+}
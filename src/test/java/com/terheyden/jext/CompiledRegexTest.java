@@ -0,0 +1,188 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.MatchResult;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class CompiledRegexTest {
+
+    private static final CompiledRegex EMAIL = RegexBuilder.regex("email: {email}")
+        .simpleSpaces()
+        .var("{word}", "[A-Za-z0-9._-]+")
+        .var("{email}", "{word}@{word}", "email")
+        .ignoreCase()
+        .compile();
+
+    @Test
+    public void test() {
+
+        assertEquals("email:\\s+(?<email>[A-Za-z0-9._-]+@[A-Za-z0-9._-]+)", EMAIL.regex());
+        assertEquals(Pattern.CASE_INSENSITIVE, EMAIL.flags());
+
+        assertTrue(EMAIL.matches("EMAIL:  cora@cats.com"));
+        assertFalse(EMAIL.matches("email: nope"));
+        assertFalse(EMAIL.matches(null));
+
+        assertEquals("cora@cats.com", EMAIL.findGroup("email: cora@cats.com", "email"));
+        assertNull(EMAIL.findGroup("email: cora@cats.com", "nope"));
+        assertNull(EMAIL.findGroup("nope", "email"));
+
+        Result<MatchResult> res = EMAIL.find("my email: mika@cats.com!");
+        assertTrue(res.isOk());
+        assertEquals("mika@cats.com", res.getValue().group(EMAIL.groupIndex("email")));
+        assertTrue(EMAIL.find("nope").isFail());
+    }
+
+    @Test
+    public void testGroupIndex() {
+
+        CompiledRegex regex = RegexBuilder
+            .regex("(a)(?:b)[(](?<first>c)\\((?<second>d(e))\\Q(x)\\E(?<third>f)")
+            .compile();
+
+        assertEquals(Arrays.asList("first", "second", "third"), new ArrayList<>(regex.groupNames()));
+        assertEquals(2, regex.groupIndex("first"));
+        assertEquals(3, regex.groupIndex("second"));
+        assertEquals(5, regex.groupIndex("third"));
+        assertEquals(-1, regex.groupIndex("fourth"));
+        assertEquals("f", regex.findGroup("ab(c(de(x)f", "third"));
+    }
+
+    @Test
+    public void testBuildTwice() {
+
+        RegexBuilder bui = RegexBuilder.regex("{a}").var("{b}", "y").var("{a}", "x{b}");
+
+        assertEquals("xy", bui.buildString());
+        assertEquals("xy", bui.buildString());
+        assertEquals(bui.compile().regex(), bui.compile().regex());
+    }
+
+    @Test
+    public void testThreads() throws Exception {
+
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 4; thread++) {
+
+            String name = "user" + thread;
+
+            futures.add(exec.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertEquals(name + "@cats.com", EMAIL.findGroup("email: " + name + "@cats.com", "email"));
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        exec.shutdown();
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+
+        CompiledRegex regex = RegexBuilder.regex("\\b(?<user>[a-z]+)@cats\\.com\\b").compile();
+
+        StringBuilder bui = new StringBuilder();
+        Random rand = new Random(3);
+
+        for (int i = 0; i < 20_000; i++) {
+            bui.append(rand.nextInt(10) == 0 ? "user" + (char) ('a' + rand.nextInt(26)) + "@cats.com" : "filler");
+            bui.append(rand.nextBoolean() ? " " : "\n");
+        }
+
+        String text = bui.toString();
+        List<String> expected = new ArrayList<>();
+        Matcher mat = regex.matcher(text);
+
+        while (mat.find()) {
+            expected.add(mat.start() + ":" + mat.group("user"));
+        }
+
+        // A tiny window, so it has to slide many times.
+        List<String> actual = new ArrayList<>();
+        Result<Long> res = regex.forEachMatch(new StringReader(text), 1024, match ->
+            actual.add(match.start() + ":" + match.group("user")));
+
+        assertEquals(expected, actual);
+        assertEquals(expected.size(), (long) res.getValue());
+
+        // Stop early.
+        assertEquals(1L, (long) regex.forEachMatch(new StringReader(text), match -> false).getValue());
+        assertEquals(0L, (long) regex.forEachMatch(new StringReader("nope@dogs.com"), match -> false).getValue());
+
+        // Through a channel and a memory-mapped file, with some multi-byte chars.
+        String unicodeText = text.replace("filler", "fïllér☃");
+        byte[] bytes = unicodeText.getBytes(StandardCharsets.UTF_8);
+        List<String> unicodeExpected = new ArrayList<>();
+        mat = regex.matcher(unicodeText);
+
+        while (mat.find()) {
+            unicodeExpected.add(mat.start() + ":" + mat.group("user"));
+        }
+
+        List<String> fromChannel = new ArrayList<>();
+        regex.forEachMatch(Channels.newChannel(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8, match ->
+            fromChannel.add(match.start() + ":" + match.group("user")));
+
+        assertEquals(unicodeExpected, fromChannel);
+
+        Path file = Files.createTempFile("jext", ".log");
+
+        try {
+
+            Files.write(file, bytes);
+
+            List<String> fromFile = new ArrayList<>();
+            regex.forEachMatch(file, match -> fromFile.add(match.start() + ":" + match.group("user")));
+            assertEquals(unicodeExpected, fromFile);
+
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testStreamingEdges() throws Exception {
+
+        // A match that stretches across many reads.
+        CompiledRegex regex = RegexBuilder.regex("a+").compile();
+        List<StreamMatch> matches = new ArrayList<>();
+        String text = "x" + new String(new char[3000]).replace('\0', 'a') + "x";
+
+        regex.forEachMatch(new StringReader(text), 8192, matches::add);
+        assertEquals(1, matches.size());
+        assertEquals(1, matches.get(0).start());
+        assertEquals(3001, matches.get(0).end());
+
+        // Empty matches, same as Matcher.find().
+        assertEquals(4L, (long) RegexBuilder.regex("x*").compile().forEachMatch(new StringReader("abc"), match -> true)
+            .getValue());
+
+        // ^ only at real line starts, even when the window slides.
+        CompiledRegex lineStart = RegexBuilder.regex("^b").beginAndEndMatchNewlines().compile();
+        String lines = new String(new char[5000]).replace('\0', 'b');
+        assertEquals(1L, (long) lineStart.forEachMatch(new StringReader(lines), 1024, match -> true).getValue());
+    }
+}
@@ -0,0 +1,132 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class DebugRendererTest {
+
+    @Test
+    public void test() throws Exception {
+
+        DebugRenderer renderer = new DebugRenderer();
+
+        assertEquals("null", renderer.render(null));
+        assertEquals("\"Cora\"", renderer.render("Cora"));
+        assertEquals("[]", renderer.render(new ArrayList<>()));
+        assertEquals("[int[]:3=1,2,3]", renderer.render(new int[] { 1, 2, 3 }));
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", "Mika");
+        map.put("ages", Arrays.asList(12, 11));
+        assertEquals("[LinkedHashMap:2=\"name\":\"Mika\",\"ages\":[ArrayList:2]]", renderer.render(map));
+        assertEquals("[LinkedHashMap:2=\"name\":\"Mika\",\"ages\":[ArrayList:2=12,11]]",
+            new DebugRenderer().maxDepth(2).render(map));
+
+        StringWriter writer = new StringWriter();
+        assertSame(writer, renderer.render(Arrays.asList(true, 'c'), writer));
+        assertEquals("[ArrayList:2=true,c]", writer.toString());
+
+        StringBuilder bui = new StringBuilder("debug: ");
+        Val.toDebugStr(new String[] { "Tashi" }, bui);
+        assertEquals("debug: [String[]:1=\"Tashi\"]", bui.toString());
+    }
+
+    @Test
+    public void testBudgets() {
+
+        List<Integer> nums = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nums.add(i);
+        }
+
+        DebugRenderer renderer = new DebugRenderer().maxElements(3);
+        assertEquals("[ArrayList:1000=0,1,2,...(+997 more)]", renderer.render(nums));
+        assertEquals("[Integer[]:1000=0,1,2,...(+997 more)]", renderer.render(nums.toArray(new Integer[0])));
+
+        String str = new DebugRenderer().maxChars(10).render(nums);
+        assertEquals("[ArrayList" + DebugRenderer.TRUNCATED, str);
+
+        // Exactly at the budget isn't truncated.
+        assertEquals("\"Mika\"", new DebugRenderer().maxChars(6).render("Mika"));
+        assertEquals("\"Mika" + DebugRenderer.TRUNCATED, new DebugRenderer().maxChars(5).render("Mika"));
+    }
+
+    @Test
+    public void testEndlessIterable() {
+
+        Iterable<Integer> endless = () -> new Iterator<Integer>() {
+
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                return next++;
+            }
+        };
+
+        DebugRenderer renderer = new DebugRenderer().maxElements(2);
+        String name = endless.getClass().getSimpleName();
+
+        assertEquals("[" + name + ":2+=0,1,...]", renderer.render(endless));
+        assertEquals("[" + name + ":2+]", renderer.maxDepth(0).render(endless));
+    }
+
+    @Test
+    public void testCycles() {
+
+        List<Object> list = new ArrayList<>();
+        list.add("self");
+        list.add(list);
+
+        assertEquals("[ArrayList:2=\"self\",(this ArrayList)]", new DebugRenderer().maxDepth(5).render(list));
+
+        // Same object twice, but not inside itself, is fine.
+        List<Integer> twice = Arrays.asList(1, 2);
+        assertEquals("[ArrayList:2=[ArrayList:2=1,2],[ArrayList:2=1,2]]",
+            new DebugRenderer().maxDepth(2).render(new ArrayList<>(Arrays.asList(twice, twice))));
+    }
+
+    @Test
+    public void testFormatters() {
+
+        List<TestUser> users = Arrays.asList(new TestUser("Mika", 12), new TestUser("Cora", 6));
+
+        try {
+
+            Val.registerDebugFormatter(TestUser.class, (user, out) -> out.append("User:").append(user.name()));
+            assertEquals("[ArrayList:2=User:Mika,User:Cora]", Val.toDebugStr(users));
+            assertEquals("[TestUser[]:1=User:Mika]", Val.toDebugStr(new TestUser[] { users.get(0) }));
+
+            // Formatters stay within the budget too.
+            assertEquals("[ArrayList:2=User:M" + DebugRenderer.TRUNCATED, new DebugRenderer().maxChars(19).render(users));
+
+            // Closest registered type wins, even over the built-ins.
+            Val.registerDebugFormatter(Iterable.class, (iter, out) -> out.append("iter"));
+            Val.registerDebugFormatter(List.class, (list, out) -> out.append("list"));
+            assertEquals("list", Val.toDebugStr(users));
+            assertEquals("iter", Val.toDebugStr(new ArrayDeque<>(users)));
+
+        } finally {
+            Val.unregisterDebugFormatter(TestUser.class);
+            Val.unregisterDebugFormatter(Iterable.class);
+            Val.unregisterDebugFormatter(List.class);
+        }
+
+        assertTrue(Val.toDebugStr(users).contains("TestUser@"));
+    }
+}
@@ -4,8 +4,17 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -35,4 +44,198 @@ public class ExceptTest {
         URL url2 = Except.wrap(() -> throwUp());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testFailure() {
+
+        Failure failure = Except.failure("Bad row %d.", 12);
+        assertEquals("Bad row 12.", failure.getMessage());
+        assertEquals(0, failure.getStackTrace().length);
+        assertNull(failure.getCode());
+
+        Failure constant = Failure.constant("BAD_ROW", "Bad row.");
+        assertEquals("BAD_ROW", constant.getCode());
+        assertEquals("com.terheyden.jext.Failure[BAD_ROW]: Bad row.", constant.toString());
+
+        MalformedURLException cause = new MalformedURLException("bad uri");
+        assertSame(cause, Except.failure(cause).getCause());
+        assertSame(constant, Except.failure(constant));
+
+        try {
+            Failure.stackTraces(true);
+            assertTrue(Failure.of("Debugging.").getStackTrace().length > 0);
+            assertEquals(0, Failure.constant("DEBUG", "Still shared.").getStackTrace().length);
+        } finally {
+            Failure.stackTraces(false);
+        }
+    }
+
+    @Test
+    public void testAttempt() {
+
+        Result<URL> failed = Except.attempt(() -> throwUp());
+        assertTrue(failed.isFail());
+        assertTrue(failed.getCause() instanceof MalformedURLException);
+
+        Result<Integer> parsed = Except.attempt(Integer::parseInt, "12");
+        assertEquals(Integer.valueOf(12), parsed.getValue());
+
+        assertTrue(Except.attempt(() -> { }).isOk());
+        assertTrue(Except.attempt(() -> { throw new IllegalStateException("no"); }).isFail());
+    }
+
+    @Test
+    public void testAttemptAll() {
+
+        BatchResult<Integer> results = Except.attemptAll(Integer::parseInt, Arrays.asList("1", "two", "3", "", "5"));
+
+        assertEquals(5, results.size());
+        assertEquals(3, results.okCount());
+        assertEquals(2, results.failCount());
+        assertFalse(results.isAllOk());
+
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        expected.set(4);
+        assertEquals(expected, results.successes());
+
+        assertArrayEquals(new int[] { 1, 3 }, results.failedIndexes());
+        assertEquals(Arrays.asList(1, null, 3, null, 5), results.values());
+        assertEquals(Arrays.asList(1, 3, 5), results.okValues());
+        assertTrue(results.getCause(1) instanceof NumberFormatException);
+        assertNull(results.getCause(2));
+        assertEquals(2, results.causes().size());
+        assertTrue(results.get(3).isFail());
+        assertEquals(Integer.valueOf(5), results.get(4).getValue());
+
+        BatchResult<Integer> lengths = Except.attemptAll(String::length, new String[] { "Mika", "Cora" });
+        assertTrue(lengths.isAllOk());
+        assertEquals(Arrays.asList(4, 4), lengths.okValues());
+    }
+
+    @Test
+    public void testRetry() throws Exception {
+
+        RetryPolicy policy = new RetryPolicy()
+            .maxAttempts(4)
+            .backoff(1, 5, TimeUnit.MILLISECONDS)
+            .retryOn(e -> e instanceof IOException);
+
+        // Works on the third try.
+        AtomicInteger tries = new AtomicInteger();
+        Result<String> result = Except.retry(() -> {
+            if (tries.incrementAndGet() < 3) {
+                throw new IOException("Flaky.");
+            }
+            return "done";
+        }, policy).get();
+
+        assertEquals("done", result.getValue());
+        assertEquals(3, tries.get());
+
+        // Not retryable, so it fails right away.
+        tries.set(0);
+        result = Except.<String>retry(() -> {
+            tries.incrementAndGet();
+            throw new IllegalArgumentException("Bad.");
+        }, policy).get();
+
+        assertTrue(result.isFail());
+        assertTrue(result.getCause() instanceof IllegalArgumentException);
+        assertEquals(1, tries.get());
+
+        RetryPolicy.Stats stats = policy.stats();
+        assertEquals(2, stats.calls());
+        assertEquals(4, stats.attempts());
+        assertEquals(2, stats.retries());
+        assertEquals(1, stats.successes());
+        assertEquals(1, stats.failures());
+    }
+
+    @Test
+    public void testRetryScheduled() throws Exception {
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+
+            RetryPolicy policy = new RetryPolicy().maxAttempts(3).backoff(1, 1, TimeUnit.MILLISECONDS).jitter(0);
+            AtomicInteger tries = new AtomicInteger();
+
+            Result<Object> result = Except.retry(() -> {
+                tries.incrementAndGet();
+                throw new IOException("Down.");
+            }, policy, scheduler).get(5, TimeUnit.SECONDS);
+
+            assertTrue(result.isFail());
+            assertEquals("Down.", result.getMsg());
+            assertEquals(3, tries.get());
+            assertEquals(TimeUnit.MILLISECONDS.toNanos(2), policy.stats().totalDelay(TimeUnit.NANOSECONDS));
+
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRetryStops() throws Exception {
+
+        RetryPolicy policy = new RetryPolicy().maxAttempts(3).backoff(1, 1, TimeUnit.MILLISECONDS);
+
+        // An Error still completes the future, instead of leaving it hanging.
+        StackOverflowError error = new StackOverflowError();
+        Result<Object> result = Except.retry(() -> { throw error; }, policy).get(5, TimeUnit.SECONDS);
+        assertTrue(result.isFail());
+        assertSame(error, result.getCause().getCause());
+
+        // So does a retryOn that throws.
+        RetryPolicy badFilter = new RetryPolicy().retryOn(e -> { throw new IllegalStateException("Bad filter."); });
+        result = Except.retry(() -> { throw new IOException("Down."); }, badFilter).get(5, TimeUnit.SECONDS);
+        assertTrue(result.isFail());
+        assertEquals("Bad filter.", result.getCause().getCause().getMessage());
+
+        // Cancelling unschedules the next try, and still counts the call.
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        try {
+
+            RetryPolicy slow = new RetryPolicy().maxAttempts(3).backoff(1, 1, TimeUnit.HOURS);
+            CompletableFuture<Result<Object>> future = Except.retry(() -> { throw new IOException("Down."); }, slow, scheduler);
+
+            assertEquals(1, scheduler.getQueue().size());
+            assertTrue(future.cancel(false));
+            assertEquals(0, scheduler.getQueue().size());
+            assertEquals(1, slow.stats().calls());
+            assertEquals(1, slow.stats().failures());
+
+            // The hour it never waited isn't counted.
+            assertEquals(0, slow.stats().totalDelay(TimeUnit.NANOSECONDS));
+
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        // Nor is a wait the (now shut down) scheduler rejected.
+        RetryPolicy rejected = new RetryPolicy().maxAttempts(3).backoff(1, 1, TimeUnit.HOURS);
+        result = Except.retry(() -> { throw new IOException("Down."); }, rejected, scheduler).get(5, TimeUnit.SECONDS);
+        assertEquals("Down.", result.getMsg());
+        assertEquals(0, rejected.stats().totalDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void testRetryDelays() {
+
+        RetryPolicy policy = new RetryPolicy().backoff(100, 1000, TimeUnit.NANOSECONDS).jitter(0);
+        assertEquals(100, policy.delayNanos(1));
+        assertEquals(200, policy.delayNanos(2));
+        assertEquals(1000, policy.delayNanos(10));
+
+        policy.jitter(0.5);
+
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.delayNanos(2);
+            assertTrue(delay >= 100 && delay <= 200);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.terheyden.jext;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ExistsCacheTest {
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void test() throws Exception {
+
+        ExistsCache cache = new ExistsCache(10, 1, TimeUnit.HOURS);
+        Path file = tmp.getRoot().toPath().resolve("cora.txt");
+
+        assertFalse(cache.exists(file));
+        Files.createFile(file);
+
+        // Still trusting the old answer.
+        assertFalse(cache.exists(file));
+        assertFalse(cache.exists(file.toFile()));
+
+        cache.invalidate(file);
+        assertTrue(cache.exists(file));
+
+        ExistsCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(1, stats.size());
+
+        Files.delete(file);
+        cache.invalidateAll(tmp.getRoot().toPath());
+        assertFalse(cache.exists(file));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTtl() throws Exception {
+
+        ExistsCache cache = new ExistsCache(10, 0, TimeUnit.SECONDS);
+        File file = new File(tmp.getRoot(), "mika.txt");
+
+        assertFalse(cache.exists(file));
+        assertTrue(file.createNewFile());
+        assertTrue(cache.exists(file));
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+
+        ExistsCache cache = new ExistsCache(3, 1, TimeUnit.HOURS);
+
+        for (int i = 0; i < 10; i++) {
+            cache.exists(tmp.getRoot().toPath().resolve("f" + i));
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(7, cache.stats().evictions());
+    }
+
+    @Test
+    public void testInvalidateAll() throws Exception {
+
+        ExistsCache cache = new ExistsCache(10, 1, TimeUnit.HOURS);
+        Path root = tmp.getRoot().toPath();
+        Path deep = root.resolve("a/b/c.txt");
+        Path other = root.resolve("other.txt");
+
+        // Nothing cached for a or a/b themselves.
+        assertFalse(cache.exists(deep));
+        assertFalse(cache.exists(other));
+
+        Files.createDirectories(deep.getParent());
+        Files.createFile(deep);
+        Files.createFile(other);
+
+        cache.invalidateAll(root.resolve("a"));
+        assertTrue(cache.exists(deep));
+
+        // Only what's under a was invalidated.
+        assertFalse(cache.exists(other));
+
+        // Evicted paths are forgotten, and the rest still invalidate.
+        ExistsCache small = new ExistsCache(2, 1, TimeUnit.HOURS);
+
+        for (int i = 0; i < 5; i++) {
+            small.exists(root.resolve("a/x" + i));
+        }
+
+        small.exists(deep);
+        small.invalidateAll(root);
+        assertTrue(small.exists(deep));
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+
+        Path dir = tmp.newFolder("watched").toPath();
+        Path file = dir.resolve("tashi.txt");
+
+        try (ExistsCache cache = new ExistsCache(10, 1, TimeUnit.HOURS).watch(dir)) {
+
+            assertFalse(cache.exists(file));
+            Files.createFile(file);
+
+            // Events are async, and polled on some platforms, so give it a while.
+            long giveUpAt = System.currentTimeMillis() + 30_000;
+
+            while (!cache.exists(file) && System.currentTimeMillis() < giveUpAt) {
+                Thread.sleep(20);
+            }
+
+            assertTrue(cache.exists(file));
+        }
+    }
+
+    @Test
+    public void testVal() throws Exception {
+
+        Path file = tmp.getRoot().toPath().resolve("val.txt");
+        ExistsCache cache = new ExistsCache(10, 1, TimeUnit.HOURS);
+
+        try {
+
+            Val.useExistsCache(cache);
+            assertTrue(Val.notExists(file));
+            assertTrue(Val.isInvalid(file));
+
+            Files.createFile(file);
+            assertFalse(Val.exists(file));
+
+            cache.invalidate(file);
+            assertTrue(Val.exists(file));
+            assertTrue(Val.isValid(file.toFile()));
+
+        } finally {
+            Val.useExistsCache(null);
+        }
+
+        assertTrue(Val.exists(file));
+    }
+}
@@ -0,0 +1,104 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+import java.util.Random;
+import java.util.UnknownFormatConversionException;
+
+import static org.junit.Assert.*;
+
+public class FormatTemplateTest {
+
+    @Test
+    public void test() {
+
+        FormatTemplate tmpl = Str.template("User %s is %d (0x%x), %.2f%% done.%n");
+        assertEquals(String.format(tmpl.pattern(), "Cora", 6, 255, 99.5), tmpl.format("Cora", 6, 255, 99.5));
+        assertEquals("no specs", Str.template("no specs").format());
+        assertEquals("null null", Str.template("%s %d").format((Object[]) null));
+
+        StringBuilder bui = new StringBuilder("> ");
+        assertSame(bui, Str.template("%s!").formatTo(bui, "hi"));
+        assertEquals("> hi!", bui.toString());
+
+        // Fancy specifiers go to String.format().
+        assertEquals(String.format("%-6s|%05d|%b", "ab", 42, true),
+            Str.template("%-6s|%05d|%b").format("ab", 42, true));
+        assertEquals("b a", Str.template("%2$s %1$s").format("a", "b"));
+    }
+
+    @Test
+    public void testSameAsStringFormat() {
+
+        Random rand = new Random(42);
+        Object[] ints = { 0, -1, Integer.MIN_VALUE, Long.MAX_VALUE, (byte) -1, (short) -300, BigInteger.TEN.negate() };
+        String[] floatPatterns = { "%f", "%.0f", "%.1f", "%.2f", "%.10f" };
+
+        for (Object val : ints) {
+            assertEquals(String.format("%d", val), Str.template("%d").format(val));
+            assertEquals(String.format("[%x]", val), Str.template("[%x]").format(val));
+            assertEquals(String.format("%s", val), Str.template("%s").format(val));
+        }
+
+        for (int i = 0; i < 20_000; i++) {
+
+            double val = i % 3 == 0
+                ? rand.nextInt(2000) / 8.0 - 125
+                : (rand.nextDouble() - 0.5) * Math.pow(10, rand.nextInt(20) - 5);
+
+            for (String pattern : floatPatterns) {
+                assertEquals(pattern + " " + val, String.format(pattern, val), Str.template(pattern).format(val));
+                assertEquals(pattern + " " + val, String.format(pattern, (float) val), Str.template(pattern).format((float) val));
+            }
+        }
+
+        for (double val : new double[] { Double.NaN, Double.NEGATIVE_INFINITY, -0.0, 0.125, 2.5, -2.5, 1e300 }) {
+            assertEquals(String.format("%.2f", val), Str.template("%.2f").format(val));
+        }
+    }
+
+    @Test
+    public void testLocale() {
+
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+
+        try {
+            Locale.setDefault(Locale.Category.FORMAT, Locale.GERMANY);
+            assertEquals("1,50", Str.template("%.2f").format(1.5));
+            Locale.setDefault(Locale.Category.FORMAT, new Locale("ar", "EG"));
+            assertEquals(String.format("%d", 42), Str.template("%d").format(42));
+        } finally {
+            Locale.setDefault(Locale.Category.FORMAT, locale);
+        }
+
+        assertEquals("1.50", Str.template("%.2f").format(1.5));
+    }
+
+    @Test
+    public void testErrors() {
+
+        try {
+            Str.template("%s and %s").format("one");
+            fail();
+        } catch (MissingFormatArgumentException e) {
+            assertEquals("%s", e.getFormatSpecifier());
+        }
+
+        try {
+            Str.template("100%").format();
+            fail();
+        } catch (UnknownFormatConversionException e) {
+            // Same as String.format().
+        }
+
+        try {
+            Str.template("%d").format("not a number");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Same as String.format().
+        }
+    }
+}
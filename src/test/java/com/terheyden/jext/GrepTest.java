@@ -0,0 +1,170 @@
+package com.terheyden.jext;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class GrepTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    private Path createCorpus() throws IOException {
+
+        Path root = tmp.getRoot().toPath();
+        Files.createDirectories(root.resolve("sub/deeper"));
+
+        for (int i = 0; i < 30; i++) {
+
+            List<String> lines = new ArrayList<>();
+
+            for (int line = 0; line < 100; line++) {
+                lines.add(line % 10 == 0 ? "user=cat" + i + " ERROR code " + line : "all good " + line);
+            }
+
+            String dir = i % 3 == 0 ? "" : i % 3 == 1 ? "sub" : "sub/deeper";
+            Files.write(root.resolve(dir).resolve("file" + i + (i % 2 == 0 ? ".log" : ".txt")), lines, StandardCharsets.UTF_8);
+        }
+
+        return root;
+    }
+
+    @Test
+    public void test() throws Exception {
+
+        Path root = createCorpus();
+        CompiledRegex regex = RegexBuilder.regex("user={user} ERROR").var("{user}", "\\w+", "user").compile();
+
+        List<GrepMatch> matches;
+        try (Stream<GrepMatch> stream = new Grep(regex).search(root)) {
+            matches = stream.collect(Collectors.toList());
+        }
+
+        assertEquals(30 * 10, matches.size());
+
+        GrepMatch first = matches.stream()
+            .filter(match -> match.path().getFileName().toString().equals("file7.txt"))
+            .findFirst()
+            .get();
+
+        assertEquals(1, first.lineNumber());
+        assertEquals("user=cat7 ERROR code 0", first.line());
+        assertEquals("cat7", first.group("user"));
+        assertEquals(0, first.start());
+        assertEquals("user=cat7 ERROR", first.group());
+        assertTrue(first.toString().endsWith("file7.txt:1:user=cat7 ERROR code 0"));
+
+        // Matches within a file stay in line order.
+        List<Long> lineNumbers = matches.stream()
+            .filter(match -> match.path().getFileName().toString().equals("file7.txt"))
+            .map(GrepMatch::lineNumber)
+            .collect(Collectors.toList());
+
+        List<Long> sorted = new ArrayList<>(lineNumbers);
+        Collections.sort(sorted);
+        assertEquals(sorted, lineNumbers);
+
+        // Globs, single files, and a tiny queue on one thread.
+        try (Stream<GrepMatch> stream = new Grep(regex).glob("*.log").search(root)) {
+            assertEquals(15 * 10, stream.count());
+        }
+
+        try (Stream<GrepMatch> stream = new Grep(regex)
+            .executor(new ForkJoinPool(1))
+            .queueSize(1)
+            .search(root.resolve("file0.log"), root.resolve("sub/file1.txt"))) {
+
+            assertEquals(20, stream.count());
+        }
+    }
+
+    @Test
+    public void testStopEarly() throws Exception {
+
+        Path root = createCorpus();
+
+        // Stops the search instead of leaving it blocked on a full queue.
+        try (Stream<GrepMatch> stream = new Grep(RegexBuilder.regex("good")).queueSize(2).search(root)) {
+            assertEquals(5, stream.limit(5).count());
+        }
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+
+        Path root = createCorpus();
+        Path missing = root.resolve("missing.log");
+        CompiledRegex regex = RegexBuilder.regex("ERROR").compile();
+
+        try (Stream<GrepMatch> stream = new Grep(regex).search(missing)) {
+            stream.count();
+            fail();
+        } catch (UncheckedIOException e) {
+            assertTrue(e.getCause().getMessage().contains("missing.log"));
+        }
+
+        List<Path> failed = Collections.synchronizedList(new ArrayList<>());
+
+        try (Stream<GrepMatch> stream = new Grep(regex)
+            .onError((path, e) -> failed.add(path))
+            .search(Arrays.asList(missing, root.resolve("file0.log")))) {
+
+            assertEquals(10, stream.count());
+        }
+
+        assertEquals(Collections.singletonList(missing), failed);
+    }
+
+    @Test
+    public void testTaskErrors() throws Exception {
+
+        Path root = createCorpus();
+        CompiledRegex regex = RegexBuilder.regex("ERROR").compile();
+
+        // Anything thrown inside a search task stops the search, instead of silently losing matches.
+        try (Stream<GrepMatch> stream = new Grep(regex)
+            .filter(path -> { throw new IllegalStateException("bad filter"); })
+            .search(root)) {
+
+            stream.count();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("bad filter", e.getMessage());
+        }
+
+        try (Stream<GrepMatch> stream = new Grep(regex)
+            .filter(path -> { throw new StackOverflowError(); })
+            .search(root)) {
+
+            stream.count();
+            fail();
+        } catch (StackOverflowError e) {
+            // Expected.
+        }
+
+        try (Stream<GrepMatch> stream = new Grep(regex)
+            .onError((path, e) -> { throw new SecurityException("no"); })
+            .search(root.resolve("missing.log"))) {
+
+            stream.count();
+            fail();
+        } catch (SecurityException e) {
+            assertEquals("no", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+
+import static org.junit.Assert.*;
+
+public class MatchBudgetTest {
+
+    // Each * becomes (.*), so this backtracks through every way of splitting a text with no z in it.
+    // (Unlike the classic (a+)+b, newer JDKs can't memoize their way out of this one.)
+    private static final String EVIL_WILDCARDS = "*x*y*z*";
+
+    private static String evilText() {
+        StringBuilder bui = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            bui.append("xy");
+        }
+        return bui.toString();
+    }
+
+    private static CompiledRegex evilRegex(MatchBudget budget) {
+        return RegexBuilder.regex(EVIL_WILDCARDS).wildcards().compile(budget);
+    }
+
+    @Test
+    public void testSteps() {
+
+        MatchBudget budget = MatchBudget.steps(100_000);
+        CompiledRegex regex = evilRegex(budget);
+
+        Result<Boolean> res = regex.tryMatches(evilText());
+        assertTrue(res.isFail());
+        assertEquals("Match aborted: step budget exceeded.", res.getMsg());
+        assertFalse(regex.matches(evilText()));
+        assertTrue(regex.find(evilText()).isFail());
+
+        assertEquals(3, budget.stepAborts());
+        assertEquals(3, budget.abortCount());
+
+        // Plenty of budget for normal text.
+        assertEquals(true, regex.tryMatches("a x b y c z").getValue());
+        assertEquals(false, regex.tryMatches("zyx").getValue());
+
+        Result<MatchResult> found = regex.find("axbycz");
+        assertEquals("axbycz", found.getValue().group());
+        assertEquals(3, budget.abortCount());
+    }
+
+    @Test
+    public void testTimeout() {
+
+        MatchBudget budget = MatchBudget.timeout(50, TimeUnit.MILLISECONDS);
+
+        CompiledRegex regex = evilRegex(budget);
+
+        long start = System.nanoTime();
+        Result<Boolean> res = regex.tryMatches(evilText());
+
+        assertTrue(res.isFail());
+        assertEquals("Match aborted: timed out.", res.getMsg());
+        assertEquals(1, budget.timeoutAborts());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+    }
+
+    @Test
+    public void testInterrupted() {
+
+        CompiledRegex regex = evilRegex(MatchBudget.steps(Long.MAX_VALUE));
+
+        Thread.currentThread().interrupt();
+
+        try {
+            assertEquals("Match aborted: thread interrupted.", regex.tryMatches(evilText()).getMsg());
+            assertEquals(1, regex.budget().interruptAborts());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBudget() {
+        MatchBudget.steps(0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NeedleSetTest {
+
+    @Test
+    public void test() {
+
+        NeedleSet needles = Val.compileNeedles("he", "she", "his", "hers");
+
+        assertTrue(needles.containsAny("ushers"));
+        assertFalse(needles.containsAny("nope"));
+        assertFalse(needles.containsAny(null));
+
+        assertTrue(needles.containsAll("ushers and his"));
+        assertFalse(needles.containsAll("ushers"));
+
+        // Overlapping matches are all found.
+        assertEquals(Arrays.asList("she", "he", "hers"), new ArrayList<>(needles.findAll("ushers")));
+        assertTrue(needles.findAll("nothing here").contains("he"));
+        assertTrue(needles.findAll(null).isEmpty());
+    }
+
+    @Test
+    public void testEmptyNeedles() {
+
+        // Same rules as Val.contains(): null and empty are found in any non-null text.
+        assertTrue(Val.compileNeedles("zzz", "").containsAny("abc"));
+        assertTrue(Val.compileNeedles((String) null).containsAll("abc"));
+        assertFalse(Val.compileNeedles("").containsAny(null));
+
+        // ...but the IgnoreCase versions skip null needles, compiled or not.
+        assertFalse(Val.containsAnyIgnoreCase("abc", (String) null));
+        assertFalse(Val.containsAnyIgnoreCase("abc", Val.compileNeedlesIgnoreCase((String) null)));
+        assertTrue(Val.containsAllIgnoreCase("abc", Val.compileNeedlesIgnoreCase(null, "B")));
+        assertFalse(Val.containsAnyIgnoreCase("abc", Val.compileNeedlesIgnoreCase(null, "x")));
+        assertFalse(Val.compileNeedles().containsAny("abc"));
+        assertFalse(Val.compileNeedles().containsAll("abc"));
+    }
+
+    @Test
+    public void testValDelegates() {
+
+        NeedleSet needles = Val.compileNeedles("cat", "dog", "émoji☃");
+
+        assertEquals(3, needles.size());
+        assertTrue(Val.containsAny("hotdogs", needles));
+        assertTrue(Val.containsAll("a cat, a dog, and émoji☃", needles));
+        assertFalse(Val.containsAll("a cat and a dog", needles));
+        assertTrue(Val.notContainsAll("a cat and a dog", needles));
+    }
+
+    @Test
+    public void testIgnoreCase() {
+
+        NeedleSet needles = Val.compileNeedlesIgnoreCase("Cat", "cAT", "ÉMOJI");
+
+        assertTrue(needles.isIgnoreCase());
+        assertTrue(needles.containsAny("a CAT"));
+        assertTrue(needles.containsAll("my émoji cat"));
+        assertEquals(Arrays.asList("ÉMOJI", "Cat"), new ArrayList<>(needles.findAll("émoji cat")));
+
+        // Case-sensitive checks don't use an ignore-case set's shortcut, and vice versa.
+        assertFalse(Val.containsAny("a CAT", needles));
+        assertTrue(Val.containsAnyIgnoreCase("a CAT", needles));
+        assertTrue(Val.containsAllIgnoreCase("CAT", Val.compileNeedles("cat")));
+    }
+
+    @Test
+    public void testMatchesNaiveSearch() {
+
+        Random rand = new Random(7);
+
+        for (int round = 0; round < 200; round++) {
+
+            List<String> findStrs = new ArrayList<>();
+
+            for (int i = 0; i < 1 + rand.nextInt(20); i++) {
+                findStrs.add(randomStr(rand, 1 + rand.nextInt(4)));
+            }
+
+            NeedleSet needles = Val.compileNeedles(findStrs);
+            String text = randomStr(rand, rand.nextInt(40));
+
+            assertEquals(Val.containsAny(text, new ArrayList<>(findStrs)), needles.containsAny(text));
+            assertEquals(Val.containsAll(text, new ArrayList<>(findStrs)), needles.containsAll(text));
+
+            NeedleSet foldedNeedles = Val.compileNeedlesIgnoreCase(findStrs);
+            String upperText = text.toUpperCase();
+            assertEquals(Val.containsAnyIgnoreCase(upperText, new ArrayList<>(findStrs)), foldedNeedles.containsAny(upperText));
+            assertEquals(Val.containsAllIgnoreCase(upperText, new ArrayList<>(findStrs)), foldedNeedles.containsAll(upperText));
+
+            for (String findStr : findStrs) {
+                assertEquals(text.contains(findStr), needles.findAll(text).contains(findStr));
+            }
+        }
+    }
+
+    private static String randomStr(Random rand, int len) {
+
+        // Tiny alphabet so there are lots of overlaps.
+        StringBuilder bui = new StringBuilder();
+
+        for (int i = 0; i < len; i++) {
+            bui.append("abcé".charAt(rand.nextInt(4)));
+        }
+
+        return bui.toString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.*;
+
+public class PatternCacheTest {
+
+    @Test
+    public void test() {
+
+        PatternCache cache = new PatternCache(10);
+
+        Pattern pat = cache.compile("c[a-z]t");
+        assertSame(pat, cache.compile("c[a-z]t"));
+        assertNotSame(pat, cache.compile("c[a-z]t", Pattern.CASE_INSENSITIVE));
+        assertNull(cache.getIfPresent("dog", 0));
+
+        PatternCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(2, stats.misses());
+        assertEquals(0, stats.evictions());
+        assertEquals(2, stats.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertNull(cache.getIfPresent("c[a-z]t", 0));
+
+        try {
+            cache.compile("c[a-z");
+            fail();
+        } catch (PatternSyntaxException e) {
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void testEviction() {
+
+        PatternCache cache = new PatternCache(3);
+
+        cache.compile("a");
+        cache.compile("b");
+        cache.compile("c");
+
+        // Recently used, so it gets a second chance.
+        cache.compile("a");
+        cache.compile("d");
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.stats().evictions());
+        assertNotNull(cache.getIfPresent("a", 0));
+        assertNull(cache.getIfPresent("b", 0));
+
+        for (int i = 0; i < 100; i++) {
+            cache.compile("x" + i);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(101, cache.stats().evictions());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+
+        PatternCache cache = new PatternCache(16);
+        ExecutorService exec = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < 4; thread++) {
+            futures.add(exec.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    assertTrue(cache.compile("w" + (i % 32) + "\\d").matcher("w" + (i % 32) + "7").matches());
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        exec.shutdown();
+
+        PatternCache.Stats stats = cache.stats();
+        assertEquals(20000, stats.hits() + stats.misses());
+        assertTrue(cache.size() <= 16);
+    }
+
+    @Test
+    public void testRegexBuilder() {
+
+        PatternCache cache = new PatternCache(10);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(RegexBuilder.regex("name = Cora").simpleSpaces().cached(cache).matches("name  =\tCora"));
+        }
+
+        assertEquals(4, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+
+        // Not cached unless asked.
+        RegexBuilder.regex("name").buildPattern();
+        assertEquals(1, cache.size());
+    }
+}
@@ -273,4 +273,47 @@ public class RegexBuilderTest {
         String stackId = repoInfoMat.group("stackId");
         assertEquals("my-stack", stackId);
     }
+
+    @Test
+    public void varsInAnyOrder() {
+
+        // Referencing a var defined later works too.
+        assertEquals("([a-z]+)@([a-z]+)", RegexBuilder
+            .regex("{email}")
+            .var("{email}", "{word}@{word}")
+            .var("{word}", "([a-z]+)")
+            .buildString());
+
+        // Longest name wins, and the latest definition wins.
+        assertEquals("1 2", RegexBuilder
+            .regex("{a} {ab}")
+            .var("{a}", "0")
+            .var("{ab}", "2")
+            .var("{a}", "1")
+            .buildString());
+    }
+
+    @Test
+    public void circularVars() {
+
+        RegexBuilder bui = RegexBuilder
+            .regex("{a}")
+            .var("{a}", "x{b}")
+            .var("{b}", "y{c}")
+            .var("{c}", "z{a}");
+
+        try {
+            bui.buildString();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Circular var reference: {a} -> {b} -> {c} -> {a}", e.getMessage());
+        }
+
+        try {
+            RegexBuilder.regex("{a}").var("{a}", "{a}").buildString();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Circular var reference: {a} -> {a}", e.getMessage());
+        }
+    }
 }
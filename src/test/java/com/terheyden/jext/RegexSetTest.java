@@ -0,0 +1,126 @@
+package com.terheyden.jext;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class RegexSetTest {
+
+    @Test
+    public void test() {
+
+        Pattern cat = Pattern.compile("\\bcat\\b");
+        Pattern dog = Pattern.compile("DOG", Pattern.CASE_INSENSITIVE);
+        Pattern digits = Pattern.compile("(\\d+)-(\\d+)");
+
+        RegexSet pats = RegexSet.of(cat, dog, digits);
+
+        assertEquals(3, pats.size());
+        assertTrue(pats.containsAny("hotdog"));
+        assertFalse(pats.containsAny("catsup"));
+        assertTrue(pats.containsAll("cat, dog, 555-1234"));
+        assertFalse(pats.containsAll("cat, dog"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList(cat, digits)), pats.matching("my cat ate 1-2 mice"));
+    }
+
+    @Test
+    public void testSameStartPosition() {
+
+        // All three match at the same spot. Only the first alternative wins there,
+        // but the others still have to be reported.
+        Pattern cat = Pattern.compile("cat");
+        Pattern catsup = Pattern.compile("catsup");
+        Pattern anyC = Pattern.compile("c\\w+");
+
+        RegexSet pats = RegexSet.of(cat, catsup, anyC);
+
+        assertTrue(pats.containsAll("catsup"));
+        assertEquals(3, pats.matching("catsup").size());
+        assertEquals(2, pats.matching("cats").size());
+    }
+
+    @Test
+    public void testUnmergeable() {
+
+        // Backreferences, literal flags, and duplicate group names are scanned on their own.
+        Pattern doubled = Pattern.compile("(\\w)\\1");
+        Pattern literal = Pattern.compile("a.b", Pattern.LITERAL);
+        Pattern named1 = Pattern.compile("(?<num>\\d+)!");
+        Pattern named2 = Pattern.compile("(?<num>\\d+)\\?");
+
+        RegexSet pats = RegexSet.of(doubled, literal, named1, named2);
+
+        assertTrue(pats.containsAll("hello a.b 1! 2?"));
+        assertFalse(pats.containsAll("helo a.b 1! 2?"));
+        assertFalse(pats.containsAny("axb"));
+        assertEquals(2, pats.matching("1! 2?").size());
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+
+        assertEquals("cat", RegexSet.literalPrefix(Pattern.compile("\\bcat\\b")));
+        assertEquals("a.b", RegexSet.literalPrefix(Pattern.compile("a\\.b\\d")));
+        assertEquals("colo", RegexSet.literalPrefix(Pattern.compile("colou?r")));
+        assertEquals("ab", RegexSet.literalPrefix(Pattern.compile("ab+")));
+        assertEquals("", RegexSet.literalPrefix(Pattern.compile("cat|dog")));
+        assertEquals("", RegexSet.literalPrefix(Pattern.compile("(?i)cat")));
+        assertEquals("", RegexSet.literalPrefix(Pattern.compile("\\Qcat\\E")));
+        assertEquals("", RegexSet.literalPrefix(Pattern.compile("cat", Pattern.COMMENTS)));
+
+        // Prefiltered patterns still get the final say, case and all.
+        Pattern cat = Pattern.compile("cat\\b");
+        Pattern dog = Pattern.compile("dog", Pattern.CASE_INSENSITIVE);
+        RegexSet pats = RegexSet.of(cat, dog, Pattern.compile("[xyz]+!"));
+
+        assertFalse(pats.containsAny("CAT cats"));
+        assertTrue(pats.containsAll("DOG, cat, zz!"));
+        assertEquals(new LinkedHashSet<>(Arrays.asList(cat, dog)), pats.matching("cats DoG cat"));
+    }
+
+    @Test
+    public void testValDelegates() {
+
+        Set<Pattern> words = Val.boundWordsIgnoreCase("cat", "dog");
+
+        assertTrue(words instanceof RegexSet);
+        assertTrue(Val.containsAllRegex("Dog and CAT", words));
+        assertFalse(Val.containsAllRegex("dogs and cats", words));
+        assertTrue(Val.containsAnyRegex("a dog", words));
+        assertFalse(Val.containsAnyRegex(null, words));
+
+        List<String> texts = Arrays.asList("a cat", "a dog", "a cat and a dog", "nothing", "catdog");
+
+        // Same answers as checking every pattern one at a time.
+        for (String text : texts) {
+            for (Pattern pat : words) {
+                assertEquals(pat.matcher(text).find(), ((RegexSet) words).matching(text).contains(pat));
+            }
+        }
+    }
+
+    @Test
+    public void testNotKeptAliveByThread() throws Exception {
+
+        // This thread's matchers for a set mustn't keep the set alive once we're done with it.
+        RegexSet set = (RegexSet) Val.boundWords("cat", "dog");
+        assertTrue(Val.containsAnyRegex("a cat", set));
+
+        WeakReference<RegexSet> ref = new WeakReference<>(set);
+        set = null;
+
+        for (int i = 0; i < 50 && ref.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(ref.get());
+    }
+}
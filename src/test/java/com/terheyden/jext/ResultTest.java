@@ -2,6 +2,12 @@ package com.terheyden.jext;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Base64;
+
 import static org.junit.Assert.*;
 
 public class ResultTest {
@@ -33,4 +39,253 @@ public class ResultTest {
         good01.resultStream().forEach(u -> System.out.println(u.name()));
         fail01.resultStream().forEach(u -> System.out.println(u.name()));
     }
+
+    @Test
+    public void testShared() throws Exception {
+
+        assertSame(Result.ok(), Result.ok());
+        assertSame(Result.fail(), Result.fail());
+        assertSame(Result.fail(), Result.okIfNotNull(null));
+        assertSame(Result.ok(true), Result.ok(true));
+        assertSame(Result.ok(), Result.ok(null, null));
+
+        // Copies, so the shared ones never change.
+        Result<String> withMsg = Result.<String>ok().withMsg("Saved.");
+        assertEquals("Saved.", withMsg.getMsg());
+        assertNull(Result.ok().getMsg());
+
+        Result<String> withValue = withMsg.withValue("Mika");
+        assertTrue(withValue.isOk());
+        assertEquals("Mika", withValue.getValue());
+        assertEquals("Saved.", withValue.getMsg());
+        assertNull(withMsg.getValue());
+        assertSame(Result.ok(), withValue.withMsg(null).withValue(null));
+
+        // Deserializing gives back the shared ones too.
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(Result.fail());
+            out.writeObject(withValue);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(Result.fail(), in.readObject());
+            assertEquals("Mika", ((Result<?>) in.readObject()).getValue());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testDeprecatedSetters() {
+
+        // They return copies now, and leave the shared ones alone.
+        Result<String> res = Result.<String>ok().setMsg("Saved.").setValue("Mika");
+        assertEquals("Saved.", res.getMsg());
+        assertEquals("Mika", res.getValue());
+        assertNull(Result.ok().getMsg());
+        assertNull(Result.ok().getValue());
+    }
+
+    @Test
+    public void testPrimitiveShared() throws Exception {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(IntResult.ok());
+            out.writeObject(LongResult.fail());
+            out.writeObject(DoubleResult.ok());
+            out.writeObject(IntResult.fail("Nope."));
+            out.writeObject(LongResult.ok(7));
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertSame(IntResult.ok(), in.readObject());
+            assertSame(LongResult.fail(), in.readObject());
+            assertSame(DoubleResult.ok(), in.readObject());
+            assertEquals("Nope.", ((IntResult) in.readObject()).getMsg());
+            assertEquals(7, ((LongResult) in.readObject()).getValueOrThrow());
+        }
+    }
+
+    @Test
+    public void testOldSerializedForm() throws Exception {
+
+        // Result.ok("Mika", "old"), serialized before Results had a cause.
+        byte[] old = Base64.getDecoder().decode(
+            "rO0ABXNyABljb20udGVyaGV5ZGVuLmpleHQuUmVzdWx0etKw5mT5CwsCAANMAANtc2d0ABJMamF2YS9sYW5nL1N0cmluZztMAAZzdGF0"
+                + "dXN0ACJMY29tL3RlcmhleWRlbi9qZXh0L1Jlc3VsdCRTdGF0dXM7TAAFdmFsdWV0ABJMamF2YS9sYW5nL09iamVjdDt4cHQAA29sZH5y"
+                + "ACBjb20udGVyaGV5ZGVuLmpleHQuUmVzdWx0JFN0YXR1cwAAAAAAAAAAEgAAeHIADmphdmEubGFuZy5FbnVtAAAAAAAAAAASAAB4cHQA"
+                + "Ak9rdAAETWlrYQ==");
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(old))) {
+
+            Result<?> res = (Result<?>) in.readObject();
+            assertTrue(res.isOk());
+            assertEquals("Mika", res.getValue());
+            assertEquals("old", res.getMsg());
+            assertFalse(res.hasCause());
+        }
+    }
+
+    @Test
+    public void testCause() {
+
+        Failure cause = Failure.constant("NOT_A_NUMBER", "Not a number: abc");
+        Result<Integer> failed = Result.fail(cause);
+        assertTrue(failed.isFail());
+        assertSame(cause, failed.getCause());
+        assertEquals("Not a number: abc", failed.getMsg());
+
+        // A null cause is just a fail.
+        assertSame(Result.fail(), Result.fail((Exception) null));
+        assertSame(IntResult.fail(), IntResult.fail((Exception) null));
+        assertSame(LongResult.fail(), LongResult.fail((Exception) null));
+        assertSame(DoubleResult.fail(), DoubleResult.fail((Exception) null));
+
+        // Copies keep the cause.
+        assertSame(cause, failed.withMsg("Row 3").getCause());
+        assertSame(cause, failed.withValue(0).getCause());
+
+        try {
+            failed.getValueOrThrow();
+            fail();
+        } catch (Exception e) {
+            assertSame(cause, e);
+        }
+
+        try {
+            failed.getValueOrThrow("Row 3 is bad.");
+            fail();
+        } catch (Exception e) {
+            assertEquals("Row 3 is bad.", e.getMessage());
+            assertSame(cause, e.getCause());
+        }
+
+        // No cause: a stackless Failure.
+        try {
+            Result.fail().getValueOrThrow();
+            fail();
+        } catch (Exception e) {
+            assertTrue(e instanceof Failure);
+            assertEquals(0, e.getStackTrace().length);
+        }
+
+        assertFalse(Result.fail("Nope.", null).hasCause());
+    }
+
+    @Test
+    public void testMap() {
+
+        Result<String> mika = Result.ok("Mika", "Found.");
+        assertEquals(Integer.valueOf(4), mika.map(String::length).getValue());
+        assertEquals("Found.", mika.map(String::length).getMsg());
+        assertEquals("MIKA", mika.flatMap(name -> Result.ok(name.toUpperCase())).getValue());
+        assertEquals("Mika", mika.toOptional().get());
+
+        Result<String> failed = Result.fail("Nope.");
+        assertSame(failed, failed.map(String::length));
+        assertFalse(failed.toOptional().isPresent());
+        assertFalse(Result.<String>fail().withValue("leftover").map(String::length).hasValue());
+    }
+
+    @Test
+    public void testPrimitive() {
+
+        // Shared, like Result's.
+        assertSame(IntResult.ok(), IntResult.ok());
+        assertSame(LongResult.fail(), LongResult.fail((String) null));
+        assertSame(DoubleResult.fail(), DoubleResult.from(Result.fail()));
+        assertSame(IntResult.ok(), IntResult.from(Result.ok()));
+
+        // Round trips, including a Fail with a value and an Ok without one.
+        IntResult found = IntResult.from(Result.ok(12, "Found."));
+        assertTrue(found.isOk());
+        assertEquals(12, found.orElse(-1));
+        assertEquals("Found.", found.getMsg());
+        assertEquals(Integer.valueOf(12), found.toResult().getValue());
+        assertEquals("Found.", found.toResult().getMsg());
+
+        LongResult partial = LongResult.from(Result.<Long>fail("Partial.").withValue(7L));
+        assertTrue(partial.isFail());
+        assertTrue(partial.hasValue());
+        assertEquals(7L, partial.orElse(-1));
+        assertTrue(partial.toResult().isFail());
+        assertEquals(Long.valueOf(7), partial.toResult().getValue());
+
+        DoubleResult empty = DoubleResult.from(Result.ok(null, "Nothing."));
+        assertTrue(empty.isOk());
+        assertFalse(empty.hasValue());
+        assertTrue(empty.toResult().isOk());
+        assertNull(empty.toResult().getValue());
+        assertEquals("Nothing.", empty.toResult().getMsg());
+
+        // map keeps status and message.
+        LongResult doubled = partial.map(val -> val * 2);
+        assertTrue(doubled.isFail());
+        assertEquals(14L, doubled.orElse(-1));
+        assertEquals("Partial.", doubled.getMsg());
+        assertEquals("Ok 24: Found.", found.map(val -> val * 2).toString());
+
+        // orElse / orElseGet only use the default when there's no value.
+        assertEquals(1.5, DoubleResult.ok(1.5).orElseGet(() -> 9), 0);
+        assertEquals(9, DoubleResult.fail("Nope.").orElseGet(() -> 9), 0);
+        assertEquals(-1, IntResult.ok().orElse(-1));
+
+        // mapToObj on a Fail keeps it a Fail.
+        Result<String> mapped = IntResult.fail("Nope.").mapToObj(String::valueOf);
+        assertTrue(mapped.isFail());
+        assertFalse(mapped.hasValue());
+        assertEquals("Nope.", mapped.getMsg());
+        assertEquals("12", found.mapToObj(String::valueOf).getValue());
+
+        // Causes survive the trip both ways, and getValueOrThrow() throws them like Result does.
+        Failure cause = Failure.constant("NOT_A_NUMBER", "Not a number: abc");
+        IntResult parsed = IntResult.from(Result.fail(cause));
+        assertSame(cause, parsed.getCause());
+        assertEquals("Not a number: abc", parsed.getMsg());
+        assertSame(cause, parsed.toResult().getCause());
+        assertSame(cause, parsed.map(val -> val + 1).getCause());
+        assertSame(cause, LongResult.fail("Nope.", cause).mapToObj(String::valueOf).getCause());
+
+        try {
+            parsed.getValueOrThrow();
+            fail();
+        } catch (Exception e) {
+            assertSame(cause, e);
+        }
+
+        try {
+            DoubleResult.fail().getValueOrThrow("Need a price.");
+            fail();
+        } catch (Exception e) {
+            assertTrue(e instanceof Failure);
+            assertEquals("Need a price.", e.getMessage());
+        }
+
+        try {
+            LongResult.ok().getValueOrThrow();
+            fail();
+        } catch (Exception e) {
+            assertTrue(e instanceof Failure);
+            assertEquals(0, e.getStackTrace().length);
+        }
+
+        // No silent truncation.
+        assertEquals(2L, LongResult.from(Result.ok(2.0)).orElse(-1));
+        assertEquals(3, IntResult.from(Result.ok(3L)).orElse(-1));
+
+        try {
+            LongResult.from(Result.ok(1.9));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Not a whole number in range: 1.9", e.getMessage());
+        }
+
+        try {
+            IntResult.from(Result.ok(3_000_000_000L));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Not a whole number in range: 3000000000", e.getMessage());
+        }
+    }
 }
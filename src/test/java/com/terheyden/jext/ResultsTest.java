@@ -0,0 +1,123 @@
+package com.terheyden.jext;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ResultsTest {
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static List<Except.ThrowableSupplier<Integer>> tasks(int count, int failEvery) {
+
+        List<Except.ThrowableSupplier<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            int num = i;
+            tasks.add(() -> {
+                if (num % failEvery == 0) {
+                    throw new IOException("Task " + num + " failed.");
+                }
+                return num;
+            });
+        }
+
+        return tasks;
+    }
+
+    @Test
+    public void test() {
+
+        BatchResult<Integer> results = Results.runAll(tasks(10_000, 100), pool, 3);
+
+        assertEquals(10_000, results.size());
+        assertEquals(9_900, results.okCount());
+        assertEquals(100, results.failCount());
+        assertEquals(0, results.skippedCount());
+        assertEquals("Task 0 failed.", results.failureMessages().get(0));
+        assertEquals(Integer.valueOf(9_999), results.getValue(9_999));
+        assertTrue(results.getCause(100) instanceof IOException);
+
+        // Common pool.
+        assertEquals(98, Results.runAll(tasks(100, 50)).okCount());
+
+        // Not RandomAccess, so it's copied first; same answers.
+        BatchResult<Integer> linked = Results.runAll(new LinkedList<>(tasks(1_000, 100)), pool, 3);
+        assertEquals(990, linked.okCount());
+        assertEquals(Integer.valueOf(999), linked.getValue(999));
+    }
+
+    @Test
+    public void testBoundedConcurrency() {
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        List<Except.ThrowableSupplier<Integer>> tasks = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            tasks.add(() -> {
+                mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return 1;
+            });
+        }
+
+        assertTrue(Results.runAll(tasks, pool, 2).isAllOk());
+        assertTrue(mostRunning.get() <= 2);
+    }
+
+    @Test
+    public void testEarlyCancel() {
+
+        // One at a time, so it's predictable: tasks 0, 2, 4 fail, and then we stop.
+        BatchResult<Integer> results = Results.runAll(tasks(100, 2), pool, 1, 2);
+
+        assertEquals(3, results.failCount());
+        assertEquals(2, results.okCount());
+        assertEquals(95, results.skippedCount());
+        assertFalse(results.isOk(50));
+        assertNull(results.getCause(50));
+        assertTrue(results.get(50).isFail());
+
+        // In parallel, we stop somewhere after the threshold.
+        BatchResult<Integer> parallel = Results.runAll(tasks(10_000, 2), pool, 4, 10);
+        assertTrue(parallel.failCount() > 10);
+        assertTrue(parallel.skippedCount() > 0);
+    }
+
+    @Test
+    public void testResults() {
+
+        List<Except.ThrowableSupplier<Result<String>>> tasks = new ArrayList<>();
+        tasks.add(() -> Result.ok("Mika"));
+        tasks.add(() -> Result.fail("No Cora."));
+        tasks.add(() -> { throw new IOException("Disk gone."); });
+
+        BatchResult<String> results = Results.runAllResults(tasks);
+
+        assertEquals(1, results.okCount());
+        assertEquals("Mika", results.getValue(0));
+        assertEquals(2, results.failCount());
+        assertEquals("No Cora.", results.failureMessages().get(0));
+        assertEquals("Disk gone.", results.failureMessages().get(1));
+
+        BatchResult<String> bounded = Results.runAllResults(tasks, pool, 1);
+        assertEquals(1, bounded.okCount());
+        assertEquals(2, bounded.failCount());
+    }
+}
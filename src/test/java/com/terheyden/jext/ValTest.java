@@ -4,11 +4,18 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -16,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import static org.junit.Assert.*;
@@ -56,6 +64,68 @@ public class ValTest {
         assertFalse(Val.anyNotEmpty(""));
     }
 
+    @Test
+    public void charSequenceEmpty() {
+
+        CharSequence nullChars = null;
+        assertTrue(Val.isEmpty(nullChars));
+        assertTrue(Val.isEmpty(new StringBuilder(" \t\r\n")));
+        assertFalse(Val.isEmpty(new StringBuilder("  x ")));
+        assertTrue(Val.isEmpty(CharBuffer.wrap("\u0000 ")));
+        assertFalse(Val.isEmpty(CharBuffer.wrap("\u00a0")));
+        assertTrue(Val.notEmpty(new StringBuilder("a")));
+
+        assertTrue(Val.anyEmpty(new StringBuilder("a"), new StringBuilder()));
+        assertTrue(Val.allNotEmpty(new StringBuilder("a"), CharBuffer.wrap("b")));
+
+        StringBuilder fallback = new StringBuilder("fallback");
+        assertSame(fallback, Val.firstNotEmpty(new StringBuilder(" "), fallback));
+        assertSame(fallback, Val.throwIfEmpty(fallback));
+        assertTrue(Val.isInvalid(new StringBuilder()));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void charSequenceThrowIfEmpty() {
+        Val.throwIfEmpty(new StringBuilder("\n"), "Empty: %s", "sb");
+    }
+
+    @Test
+    public void testLazyThrowMessages() {
+
+        // Passing checks never call the supplier.
+        assertEquals("Mika", Val.throwIfNull("Mika", () -> { throw new AssertionError(); }));
+        assertEquals("Cora", Val.throwIfEmpty("Cora", () -> { throw new AssertionError(); }));
+
+        assertThrowsMsg("Missing user Mika", () -> Val.throwIfNull(null, () -> "Missing user " + "Mika"));
+        assertThrowsMsg("Unexpected null value.", () -> Val.throwIfNull(null, (Supplier<String>) null));
+        assertThrowsMsg("Unexpected null value.", () -> Val.throwIfNull(null));
+        assertThrowsMsg("Path does not exist.", () -> Val.throwNotExists(Paths.get("no-such-file"), (Supplier<String>) null));
+
+        // Fixed arity formats like varargs does.
+        assertThrowsMsg("Empty: a", () -> Val.throwIfEmpty("", "Empty: %s", "a"));
+        assertThrowsMsg("Empty: a 2", () -> Val.throwIfEmpty(new String[0], "Empty: %s %d", "a", 2));
+        assertThrowsMsg("Empty: a 2 c", () -> Val.throwIfEmpty(new HashMap<>(), "Empty: %s %d %s", "a", 2, "c"));
+        assertThrowsMsg("Null: 1", () -> Val.throwIfNull(null, "Null: %s", 1));
+
+        // A lone Object[] is still spread, like varargs.
+        assertThrowsMsg("Empty: a b", () -> Val.throwIfEmpty("", "Empty: %s %s", new Object[] { "a", "b" }));
+        Object arr = new Object[] { "a", "b" };
+        assertThrowsMsg("Empty: a b", () -> Val.throwIfEmpty("", "Empty: %s %s", arr));
+
+        // A message with a % but no args isn't formatted.
+        assertThrowsMsg("100% empty", () -> Val.throwIfEmpty(Collections.emptyList(), "100% empty"));
+    }
+
+    private static void assertThrowsMsg(String expected, Runnable runnable) {
+
+        try {
+            runnable.run();
+            fail("Expected an IllegalStateException.");
+        } catch (IllegalStateException e) {
+            assertEquals(expected, e.getMessage());
+        }
+    }
+
     @Test
     public void testContains() {
 
@@ -93,6 +163,27 @@ public class ValTest {
         assertFalse(Val.notContainsAny("message", NULL));
     }
 
+    @Test
+    public void testIgnoreCase() {
+
+        assertTrue(Val.containsIgnoreCase("Content-TYPE", "type"));
+        assertTrue(Val.containsIgnoreCase("ÜBER straße", "über S"));
+        assertTrue(Val.containsIgnoreCase("ΣΊΣΥΦΟΣ", "σίσυφος"));
+        assertTrue(Val.containsIgnoreCase("hello", ""));
+        assertFalse(Val.containsIgnoreCase("hello", "hellos"));
+        assertFalse(Val.containsIgnoreCase("hello", null));
+
+        // Only letters differ by case: '@' and '`' are 0x20 apart too.
+        assertFalse(Val.containsIgnoreCase("@", "`"));
+
+        assertTrue(Val.endsWithIgnoreCase("image.PNG", ".png"));
+        assertFalse(Val.endsWithIgnoreCase("png", ".png"));
+        assertTrue(Val.endsWithAnyIgnoreCase("image.PNG", ".jpg", null, ".png"));
+
+        assertTrue(Val.containsAllIgnoreCase("Hello World", "WORLD", null, "hello"));
+        assertFalse(Val.containsAnyIgnoreCase("Hello World", "moo", null));
+    }
+
     @Test
     public void testEquals() {
 
@@ -168,6 +259,79 @@ public class ValTest {
         );
     }
 
+    @Test
+    public void testValidateArrays() {
+
+        assertTrue(Val.isInvalid(new int[0]));
+        assertTrue(Val.isInvalid(new boolean[0]));
+        assertTrue(Val.isInvalid(new String[0][0]));
+        assertFalse(Val.isInvalid(new long[] { 0L }));
+        assertFalse(Val.isInvalid(new char[] { 'a' }));
+        assertFalse(Val.isInvalid(new Integer[] { null }));
+    }
+
+    @Test
+    public void testRegisterValidator() {
+
+        TestUser nobody = new TestUser("", 0);
+        TestUser cora = new TestUser("Cora", 6);
+        assertTrue(Val.isValid(nobody));
+
+        try {
+
+            Val.registerValidator(TestUser.class, user -> Val.notEmpty(user.name()));
+            assertTrue(Val.isInvalid(nobody));
+            assertTrue(Val.allValid(cora, goodStr));
+
+            // Registered validators win over the built-in ones, and apply to subtypes.
+            Val.registerValidator(Collection.class, coll -> coll.size() > 1);
+            assertTrue(Val.isInvalid(goodList));
+            assertTrue(Val.isValid(new LinkedList<>(Arrays.asList(1, 2))));
+
+        } finally {
+            Val.unregisterValidator(TestUser.class);
+            Val.unregisterValidator(Collection.class);
+        }
+
+        assertTrue(Val.isValid(nobody));
+        assertTrue(Val.isValid(goodList));
+    }
+
+    @Rule
+    public final TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testBulkExists() throws Exception {
+
+        // Enough files in one dir to get listed, plus a few strays to get stat'd.
+        Path crowded = tmp.newFolder("crowded").toPath();
+        List<Path> paths = new ArrayList<>();
+
+        for (int i = 0; i < 40; i++) {
+            Path file = crowded.resolve("f" + i);
+            if (i % 10 != 3) {
+                Files.createFile(file);
+            }
+            paths.add(file);
+        }
+
+        paths.add(tmp.newFile("stray").toPath());
+        paths.add(null);
+        paths.add(tmp.getRoot().toPath().resolve("nope/f0"));
+        paths.add(crowded.resolve("../crowded/f0"));
+
+        BitSet missing = Val.findMissing(paths, ForkJoinPool.commonPool());
+        assertEquals("{3, 13, 23, 33, 41, 42}", missing.toString());
+        assertEquals(missing, Val.findMissing(new LinkedList<>(paths), ForkJoinPool.commonPool()));
+        assertFalse(Val.existsAll(paths));
+        assertTrue(Val.existsAll(paths.subList(0, 3)));
+
+        Map<Boolean, List<Path>> parts = Val.partitionExisting(paths);
+        assertEquals(6, parts.get(false).size());
+        assertEquals(38, parts.get(true).size());
+        assertEquals(paths.get(3), parts.get(false).get(0));
+    }
+
     @Test
     @Ignore
     public void testGuard() {